@@ -0,0 +1,91 @@
+package org.sefglobal.scholarx.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sefglobal.scholarx.util.EnrolmentState;
+import org.sefglobal.scholarx.util.MentorCategory;
+import org.sefglobal.scholarx.util.ProfileType;
+import org.sefglobal.scholarx.util.ProgramState;
+import org.sefglobal.scholarx.util.Views;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes the public mentor directory of a program with the {@link Views.Public} view,
+ * configured like the {@link ObjectMapper} of Spring MVC which excludes fields without a view
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MentorSerializationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int mentors;
+
+    private ObjectWriter writer;
+    private List<Mentor> mentorList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        writer = new ObjectMapper()
+                .disable(MapperFeature.DEFAULT_VIEW_INCLUSION)
+                .writerWithView(Views.Public.class);
+
+        Program program = new Program("ScholarX", "ScholarX program", "https://scholarx.org/images/scholarx.png",
+                "https://scholarx.org", ProgramState.MENTEE_APPLICATION);
+        program.setId(1L);
+        MentorCategory[] categories = MentorCategory.values();
+        mentorList = new ArrayList<>(mentors);
+        for (int i = 0; i < mentors; i++) {
+            Profile profile = new Profile();
+            profile.setId(i);
+            profile.setUid(Integer.toString(i));
+            profile.setEmail("mentor" + i + "@scholarx.org");
+            profile.setFirstName("Mentor");
+            profile.setLastName(Integer.toString(i));
+            profile.setImageUrl("https://scholarx.org/images/" + i + ".png");
+            profile.setLinkedinUrl("https://linkedin.com/in/mentor" + i);
+            profile.setHeadline("Software Engineer");
+            profile.setType(ProfileType.DEFAULT);
+
+            Mentor mentor = new Mentor();
+            mentor.setId(i);
+            mentor.setProfile(profile);
+            mentor.setProgram(program);
+            mentor.setState(EnrolmentState.APPROVED);
+            mentor.setCategory(categories[i % categories.length]);
+            mentor.setExpertise("Java, Spring, Distributed Systems");
+            mentor.setInstitution("Sustainable Education Foundation");
+            mentor.setPosition("Senior Software Engineer");
+            mentor.setBio("Mentor " + i + " has been building software for over ten years and " +
+                          "enjoys helping students find their way into the industry.");
+            mentor.setExpectations("Weekly calls and a project of the mentee's choice.");
+            mentor.setSlots(3);
+            mentorList.add(mentor);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializePublicView() throws JsonProcessingException {
+        return writer.writeValueAsBytes(mentorList);
+    }
+}
@@ -0,0 +1,66 @@
+package org.sefglobal.scholarx.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sefglobal.scholarx.model.Mentee;
+import org.sefglobal.scholarx.model.Program;
+import org.sefglobal.scholarx.util.ProgramState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Removes the duplicate programs of the {@link Mentee} objects loaded for a user. Programs
+ * are shared instances, as they are within a persistence context
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IntrospectionServiceBenchmark {
+
+    private static final int PROGRAMS = 20;
+
+    @Param({"1000", "10000", "100000"})
+    private int mentees;
+
+    private List<Mentee> menteeList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Program> programs = new ArrayList<>(PROGRAMS);
+        for (int i = 0; i < PROGRAMS; i++) {
+            Program program = new Program("ScholarX " + i, null, null, null, ProgramState.ONGOING);
+            program.setId(i);
+            programs.add(program);
+        }
+
+        Random random = new Random(42);
+        menteeList = new ArrayList<>(mentees);
+        for (int i = 0; i < mentees; i++) {
+            Mentee mentee = new Mentee();
+            mentee.setId(i);
+            mentee.setProgram(programs.get(random.nextInt(PROGRAMS)));
+            menteeList.add(mentee);
+        }
+    }
+
+    @Benchmark
+    public List<Program> getDistinctPrograms() {
+        return IntrospectionService.getDistinctPrograms(menteeList);
+    }
+}
@@ -0,0 +1,85 @@
+package org.sefglobal.scholarx.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders the messages of a cohort from their {@link EmailTemplate} and then the html body
+ * each worker sends, the two steps between the outbox and the SMTP server
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EmailTemplateRendererBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int cohort;
+
+    private EmailTemplateStore emailTemplateStore;
+    private EmailTemplateRenderer emailTemplateRenderer;
+    private List<Map<String, String>> parameters;
+    private List<String> messages;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Same resolution as ThymeleafTemplateConfig without an application context
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        templateResolver.setCacheable(true);
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.addTemplateResolver(templateResolver);
+
+        emailTemplateStore = new EmailTemplateStore();
+        emailTemplateRenderer = new EmailTemplateRenderer(templateEngine);
+        parameters = new ArrayList<>(cohort);
+        messages = new ArrayList<>(cohort);
+        for (int i = 0; i < cohort; i++) {
+            Map<String, String> params = new HashMap<>(4);
+            params.put("name", "Mentee " + i);
+            params.put("programTitle", "ScholarX");
+            parameters.add(params);
+            messages.add(emailTemplateStore.render(EmailTemplate.MENTEE_APPROVED, params));
+        }
+    }
+
+    @Benchmark
+    public void renderMessages(Blackhole blackhole) {
+        for (Map<String, String> params : parameters) {
+            blackhole.consume(emailTemplateStore.render(EmailTemplate.MENTEE_APPROVED, params));
+        }
+    }
+
+    @Benchmark
+    public void renderHtml(Blackhole blackhole) {
+        for (String message : messages) {
+            blackhole.consume(emailTemplateRenderer.render(message, true));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.sefglobal.scholarx.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matches a program sized like a busy ScholarX round: mentors with a handful of slots each
+ * and far more applicants than slots, most of them applying for the popular mentors
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MatchingEngineBenchmark {
+
+    private static final String[] EXPERTISE = {
+            "java", "spring", "python", "machine learning", "data science", "cloud", "kubernetes",
+            "react", "android", "ios", "security", "networks", "robotics", "embedded", "biology",
+            "chemistry", "physics", "statistics", "finance", "design", "research", "writing"};
+
+    @Param({"1000", "10000", "100000"})
+    private int mentees;
+
+    @Param({"100", "500"})
+    private int mentors;
+
+    private MatchingEngine engine;
+    private int[] appliedMentors;
+    private int[] menteeCategories;
+    private long[] menteeExpertise;
+    private int[] excludedMentors;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        int categoryCount = MentorCategory.values().length;
+
+        int[] capacities = new int[mentors];
+        int[] categories = new int[mentors];
+        long[] expertise = new long[mentors];
+        for (int i = 0; i < mentors; i++) {
+            capacities[i] = 1 + random.nextInt(5);
+            categories[i] = random.nextInt(categoryCount);
+            expertise[i] = MatchingEngine.expertiseMask(randomExpertise(random));
+        }
+        engine = new MatchingEngine(capacities, categories, expertise);
+
+        appliedMentors = new int[mentees];
+        menteeCategories = new int[mentees];
+        menteeExpertise = new long[mentees];
+        excludedMentors = new int[mentees];
+        for (int i = 0; i < mentees; i++) {
+            // Skew the applications towards a few popular mentors
+            int mentor = (int) (mentors * Math.pow(random.nextDouble(), 3));
+            appliedMentors[i] = mentor;
+            menteeCategories[i] = categories[mentor];
+            menteeExpertise[i] = expertise[mentor];
+            excludedMentors[i] = random.nextInt(4) == 0 ? mentor : MatchingEngine.NO_MENTOR;
+        }
+    }
+
+    @Benchmark
+    public int[] match() {
+        return engine.match(appliedMentors, menteeCategories, menteeExpertise, excludedMentors);
+    }
+
+    private static String randomExpertise(Random random) {
+        StringBuilder expertise = new StringBuilder();
+        for (int i = 0; i < 3; i++) {
+            expertise.append(EXPERTISE[random.nextInt(EXPERTISE.length)]).append(", ");
+        }
+        return expertise.toString();
+    }
+}
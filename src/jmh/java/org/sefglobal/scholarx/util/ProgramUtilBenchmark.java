@@ -0,0 +1,94 @@
+package org.sefglobal.scholarx.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sefglobal.scholarx.model.EmailRecipient;
+import org.sefglobal.scholarx.model.OutboxEmail;
+import org.sefglobal.scholarx.model.Program;
+import org.sefglobal.scholarx.model.SentEmail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the emails of a notification round, as done when a program moves to the next state
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ProgramUtilBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int cohort;
+
+    private ProgramUtil programUtil;
+    private Program program;
+    private List<EmailRecipient> recipients;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        programUtil = new ProgramUtil(new EmailTemplateStore());
+        program = new Program("ScholarX", "ScholarX program", null, null, ProgramState.ONGOING);
+        program.setId(1L);
+
+        recipients = new ArrayList<>(cohort);
+        for (int i = 0; i < cohort; i++) {
+            recipients.add(new Recipient(i, "mentee" + i + "@scholarx.org", "Mentee " + i, EnrolmentState.APPROVED));
+        }
+    }
+
+    @Benchmark
+    public List<OutboxEmail> buildEmails() {
+        List<OutboxEmail> emails = new ArrayList<>(recipients.size());
+        List<SentEmail> sentEmails = new ArrayList<>(recipients.size());
+        for (EmailRecipient recipient : recipients) {
+            programUtil.addEmail(emails, sentEmails, recipient, program, program.getTitle(),
+                    EmailTemplate.MENTEE_APPROVED, true);
+        }
+        return emails;
+    }
+
+    private static class Recipient implements EmailRecipient {
+        private final long profileId;
+        private final String email;
+        private final String name;
+        private final EnrolmentState state;
+
+        private Recipient(long profileId, String email, String name, EnrolmentState state) {
+            this.profileId = profileId;
+            this.email = email;
+            this.name = name;
+            this.state = state;
+        }
+
+        public long getProfileId() {
+            return profileId;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public EnrolmentState getState() {
+            return state;
+        }
+    }
+}
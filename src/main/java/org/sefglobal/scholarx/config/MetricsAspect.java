@@ -0,0 +1,76 @@
+package org.sefglobal.scholarx.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public service method and every repository call. Timers are tagged with the
+ * class, the method and the thrown exception only, so the number of series stays bounded
+ */
+@Aspect
+@Component
+public class MetricsAspect {
+
+    private static final String BASE_PACKAGE = "org.sefglobal.scholarx";
+    private static final String NO_EXCEPTION = "none";
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<?>, String> classNames = new ConcurrentHashMap<>();
+
+    public MetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * org.sefglobal.scholarx.service..*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("scholarx.service", className(joinPoint), joinPoint);
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..)) || " +
+            "execution(public * org.sefglobal.scholarx.repository.RecipientRepository.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("scholarx.repository", className(joinPoint), joinPoint);
+    }
+
+    private Object time(String name, String className, ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        String exception = NO_EXCEPTION;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable throwable) {
+            exception = throwable.getClass().getSimpleName();
+            throw throwable;
+        } finally {
+            Timer.builder(name)
+                    .tag("class", className)
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("exception", exception)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Spring Data repositories are proxies, so they are named after the repository
+     * interface of the application they implement rather than the proxy class
+     */
+    private String className(ProceedingJoinPoint joinPoint) {
+        return classNames.computeIfAbsent(joinPoint.getThis().getClass(), type -> {
+            for (Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(type)) {
+                if (Repository.class.isAssignableFrom(candidate) && candidate.getName().startsWith(BASE_PACKAGE)) {
+                    return candidate.getSimpleName();
+                }
+            }
+            return ClassUtils.getUserClass(type).getSimpleName();
+        });
+    }
+}
@@ -13,6 +13,7 @@ import com.google.common.collect.ImmutableList;
 import org.sefglobal.scholarx.oauth.AuthAccessTokenResponseConverter;
 import org.sefglobal.scholarx.oauth.OAuthAuthenticationSuccessHandler;
 import org.sefglobal.scholarx.service.CustomOidcUserService;
+import org.sefglobal.scholarx.util.KeysetPage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -63,6 +64,8 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
             .permitAll()
             .antMatchers("/api/programs/*/mentors")
             .permitAll()
+            .antMatchers("/api/programs/*/mentors/search")
+            .permitAll()
             .antMatchers("/api/mentors/*")
             .permitAll()
             .antMatchers("/api/**")
@@ -106,6 +109,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     configuration.setAllowCredentials(true);
     configuration.setAllowedHeaders(ImmutableList.of("Authorization", "Cache-Control", "Content-Type"));
     configuration.setAllowedOrigins(ImmutableList.of("https://scholarx.sefglobal.org"));
+    configuration.setExposedHeaders(ImmutableList.of(KeysetPage.NEXT_CURSOR_HEADER));
     final UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
     source.registerCorsConfiguration("/**", configuration);
     return source;
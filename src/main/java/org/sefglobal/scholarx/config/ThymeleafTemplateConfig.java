@@ -25,6 +25,7 @@ public class ThymeleafTemplateConfig {
         emailTemplateResolver.setSuffix(".html");
         emailTemplateResolver.setTemplateMode(TemplateMode.HTML);
         emailTemplateResolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        emailTemplateResolver.setCacheable(true);
         return emailTemplateResolver;
     }
 }
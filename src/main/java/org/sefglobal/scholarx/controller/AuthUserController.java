@@ -6,9 +6,11 @@ import org.sefglobal.scholarx.exception.BadRequestException;
 import org.sefglobal.scholarx.exception.NoContentException;
 import org.sefglobal.scholarx.exception.ResourceNotFoundException;
 import org.sefglobal.scholarx.exception.UnauthorizedException;
+import org.sefglobal.scholarx.model.EnrolledProgram;
 import org.sefglobal.scholarx.model.Mentee;
 import org.sefglobal.scholarx.model.Profile;
 import org.sefglobal.scholarx.model.Program;
+import org.sefglobal.scholarx.service.EnrolledProgramService;
 import org.sefglobal.scholarx.service.IntrospectionService;
 import org.sefglobal.scholarx.service.ProfileService;
 import org.sefglobal.scholarx.util.EnrolmentState;
@@ -29,10 +31,13 @@ public class AuthUserController {
 
   private final IntrospectionService introspectionService;
   private final ProfileService profileService;
+  private final EnrolledProgramService enrolledProgramService;
 
-  public AuthUserController(IntrospectionService introspectionService, ProfileService profileService) {
+  public AuthUserController(IntrospectionService introspectionService, ProfileService profileService,
+                            EnrolledProgramService enrolledProgramService) {
     this.introspectionService = introspectionService;
     this.profileService = profileService;
+    this.enrolledProgramService = enrolledProgramService;
   }
 
   @GetMapping
@@ -53,6 +58,14 @@ public class AuthUserController {
     return profileService.updateUserDetails(profile.getId(), profileDetails);
   }
 
+  @GetMapping("/programs")
+  @ResponseStatus(HttpStatus.OK)
+  public List<EnrolledProgram> getEnrolledPrograms(Authentication authentication)
+    throws NoContentException {
+    Profile profile = (Profile) authentication.getPrincipal();
+    return enrolledProgramService.getEnrolledPrograms(profile.getId());
+  }
+
   @GetMapping("/programs/mentee")
   @ResponseStatus(HttpStatus.OK)
   public List<Program> getMenteeingPrograms(Authentication authentication)
@@ -4,10 +4,13 @@ import java.util.List;
 import java.util.Map;
 import javax.validation.Valid;
 import org.sefglobal.scholarx.exception.BadRequestException;
+import org.sefglobal.scholarx.exception.ConflictException;
 import org.sefglobal.scholarx.exception.ResourceNotFoundException;
 import org.sefglobal.scholarx.exception.UnauthorizedException;
 import org.sefglobal.scholarx.model.Comment;
 import org.sefglobal.scholarx.model.Mentee;
+import org.sefglobal.scholarx.model.MenteeBatchResultDto;
+import org.sefglobal.scholarx.model.MenteeDecisionDto;
 import org.sefglobal.scholarx.model.Profile;
 import org.sefglobal.scholarx.service.CommentService;
 import org.sefglobal.scholarx.service.MenteeService;
@@ -75,12 +78,21 @@ public class MenteeController {
         commentService.deleteComment(id, profile.getId());
     }
 
+    @PutMapping("/state")
+    @ResponseStatus(HttpStatus.OK)
+    public List<MenteeBatchResultDto> approveOrRejectMentees(Authentication authentication,
+                                                             @Valid @RequestBody List<MenteeDecisionDto> decisions)
+            throws BadRequestException {
+        Profile profile = (Profile) authentication.getPrincipal();
+        return menteeService.approveOrRejectMentees(profile.getId(), decisions);
+    }
+
     @PutMapping("/{id}/state")
     @ResponseStatus(HttpStatus.OK)
     public Mentee approveOrRejectMentee(@PathVariable long id,
                                         Authentication authentication,
                                         @Valid @RequestBody Map<String, Boolean> payload)
-            throws ResourceNotFoundException, BadRequestException, UnauthorizedException {
+            throws ResourceNotFoundException, BadRequestException, UnauthorizedException, ConflictException {
         Profile profile = (Profile) authentication.getPrincipal();
         if (!payload.containsKey("isApproved")) {
             String msg = "Error, Value cannot be null.";
@@ -14,6 +14,7 @@ import org.sefglobal.scholarx.util.Views;
 import org.sefglobal.scholarx.service.MentorService;
 import org.sefglobal.scholarx.util.EnrolmentState;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -37,8 +38,15 @@ public class MentorController {
   @JsonView(Views.Public.class)
   @GetMapping
   @ResponseStatus(HttpStatus.OK)
-  public List<Mentor> getAllMentors() {
-    return mentorService.getAllMentors();
+  public ResponseEntity<List<Mentor>> getAllMentors(
+    @RequestParam(required = false) String cursor,
+    @RequestParam(required = false) Integer limit
+  )
+    throws BadRequestException {
+    if (limit == null) {
+      return ResponseEntity.ok(mentorService.getAllMentors());
+    }
+    return mentorService.getMentorsPage(cursor, limit).toResponseEntity();
   }
 
   @JsonView(Views.Public.class)
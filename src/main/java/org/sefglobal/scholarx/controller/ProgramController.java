@@ -8,30 +8,40 @@ import org.sefglobal.scholarx.exception.BadRequestException;
 import org.sefglobal.scholarx.exception.NoContentException;
 import org.sefglobal.scholarx.exception.ResourceNotFoundException;
 import org.sefglobal.scholarx.model.*;
+import org.sefglobal.scholarx.service.MentorDirectoryService;
 import org.sefglobal.scholarx.service.ProgramService;
 import org.sefglobal.scholarx.util.EnrolmentState;
 import org.sefglobal.scholarx.util.ProgramState;
 import org.sefglobal.scholarx.util.Views;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/programs")
 public class ProgramController {
 
   private final ProgramService programService;
+  private final MentorDirectoryService mentorDirectoryService;
 
-  public ProgramController(ProgramService programService) {
+  public ProgramController(ProgramService programService,
+                           MentorDirectoryService mentorDirectoryService) {
     this.programService = programService;
+    this.mentorDirectoryService = mentorDirectoryService;
   }
 
   @GetMapping
@@ -47,15 +57,42 @@ public class ProgramController {
     return programService.getProgramById(id);
   }
 
-  @JsonView(Views.Public.class)
   @GetMapping("/{id}/mentors")
-  @ResponseStatus(HttpStatus.OK)
-  public List<Mentor> getAllMentorsByProgramId(
+  public ResponseEntity<byte[]> getAllMentorsByProgramId(
     @PathVariable long id,
-    @RequestParam(required = false) List<EnrolmentState> states
+    @RequestParam(required = false) List<EnrolmentState> states,
+    @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+    WebRequest request
   )
     throws ResourceNotFoundException {
-    return programService.getAllMentorsByProgramId(id, states);
+    MentorDirectoryService.Snapshot snapshot = mentorDirectoryService.getSnapshot(id, states);
+    boolean isGzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+    String etag = isGzip ? snapshot.getGzipEtag() : snapshot.getEtag();
+    if (request.checkNotModified(etag)) {
+      return null;
+    }
+
+    ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+      .eTag(etag)
+      .cacheControl(CacheControl.noCache())
+      .varyBy(HttpHeaders.ACCEPT_ENCODING)
+      .contentType(MediaType.APPLICATION_JSON);
+    if (isGzip) {
+      return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.getGzipBody());
+    }
+    return builder.body(snapshot.getBody());
+  }
+
+  @GetMapping("/{id}/mentors/search")
+  @ResponseStatus(HttpStatus.OK)
+  public List<MentorSearchHit> searchMentors(
+    @PathVariable long id,
+    @RequestParam String q,
+    @RequestParam(defaultValue = "0") int page,
+    @RequestParam(defaultValue = "20") int limit
+  )
+    throws ResourceNotFoundException, BadRequestException {
+    return programService.searchMentorsByProgramId(id, q, page, limit);
   }
 
   @PostMapping("/{id}/mentor")
@@ -1,14 +1,18 @@
 package org.sefglobal.scholarx.controller.admin;
 
 import org.sefglobal.scholarx.exception.BadRequestException;
+import org.sefglobal.scholarx.exception.ConflictException;
 import org.sefglobal.scholarx.exception.ResourceNotFoundException;
 import org.sefglobal.scholarx.model.Mentee;
+import org.sefglobal.scholarx.model.MenteeAssignmentDto;
+import org.sefglobal.scholarx.model.MenteeBatchResultDto;
 import org.sefglobal.scholarx.service.MenteeService;
 import org.sefglobal.scholarx.util.EnrolmentState;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.util.List;
 import java.util.Map;
 
 @RestController("MenteeAdminController")
@@ -28,11 +32,18 @@ public class MenteeController {
         menteeService.deleteMentee(id);
     }
     
+    @PutMapping("/assign")
+    @ResponseStatus(HttpStatus.OK)
+    public List<MenteeBatchResultDto> updateAssignedMentors(@Valid @RequestBody List<MenteeAssignmentDto> assignments)
+            throws BadRequestException {
+        return menteeService.updateAssignedMentors(assignments);
+    }
+
     @PutMapping("/{id}/assign")
     @ResponseStatus(HttpStatus.OK)
     public Mentee updateAssignedMentor(@PathVariable long id,
                                        @Valid @RequestBody Map<String, Long> payload)
-            throws ResourceNotFoundException, BadRequestException {
+            throws ResourceNotFoundException, BadRequestException, ConflictException {
         return menteeService.updateAssignedMentor(id, payload.get("mentorId"));
     }
 
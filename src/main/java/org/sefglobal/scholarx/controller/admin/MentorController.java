@@ -10,11 +10,13 @@ import org.sefglobal.scholarx.model.Mentor;
 import org.sefglobal.scholarx.service.MentorService;
 import org.sefglobal.scholarx.util.EnrolmentState;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -30,8 +32,13 @@ public class MentorController {
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public List<Mentor> getAllMentors() {
-        return mentorService.getAllMentors();
+    public ResponseEntity<List<Mentor>> getAllMentors(@RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer limit)
+            throws BadRequestException {
+        if (limit == null) {
+            return ResponseEntity.ok(mentorService.getAllMentors());
+        }
+        return mentorService.getMentorsPage(cursor, limit).toResponseEntity();
     }
 
     @GetMapping("/{id}")
@@ -1,16 +1,26 @@
 package org.sefglobal.scholarx.controller.admin;
 
+import java.io.IOException;
 import java.util.List;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 
+import org.sefglobal.scholarx.exception.BadRequestException;
 import org.sefglobal.scholarx.exception.ResourceNotFoundException;
 import org.sefglobal.scholarx.model.BulkEmailDto;
 import org.sefglobal.scholarx.model.Mentee;
+import org.sefglobal.scholarx.model.MenteeAssignmentDto;
 import org.sefglobal.scholarx.model.Mentor;
+import org.sefglobal.scholarx.model.MentorMenteeCounts;
 import org.sefglobal.scholarx.model.Program;
+import org.sefglobal.scholarx.service.ExportService;
+import org.sefglobal.scholarx.service.MatchingService;
 import org.sefglobal.scholarx.service.ProgramService;
 import org.sefglobal.scholarx.util.EnrolmentState;
+import org.sefglobal.scholarx.util.ExportFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -26,9 +36,15 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/admin/programs")
 public class ProgramController {
     private final ProgramService programService;
+    private final ExportService exportService;
+    private final MatchingService matchingService;
 
-    public ProgramController(ProgramService programService) {
+    public ProgramController(ProgramService programService,
+                             ExportService exportService,
+                             MatchingService matchingService) {
         this.programService = programService;
+        this.exportService = exportService;
+        this.matchingService = matchingService;
     }
 
     @PostMapping
@@ -58,17 +74,61 @@ public class ProgramController {
 
     @GetMapping("/{id}/mentors")
     @ResponseStatus(HttpStatus.OK)
-    public List<Mentor> getAllMentorsByProgramId(@PathVariable long id,
-                                                 @RequestParam(required = false) List<EnrolmentState> states)
+    public ResponseEntity<List<Mentor>> getAllMentorsByProgramId(@PathVariable long id,
+                                                                 @RequestParam(required = false) List<EnrolmentState> states,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) Integer limit)
+            throws ResourceNotFoundException, BadRequestException {
+        if (limit == null) {
+            return ResponseEntity.ok(programService.getAllMentorsByProgramId(id, states));
+        }
+        return programService.getMentorsPageByProgramId(id, states, cursor, limit).toResponseEntity();
+    }
+
+    @GetMapping("/{id}/mentors/counts")
+    @ResponseStatus(HttpStatus.OK)
+    public List<MentorMenteeCounts> getMentorMenteeCountsByProgramId(@PathVariable long id)
             throws ResourceNotFoundException {
-        return programService.getAllMentorsByProgramId(id, states);
+        return programService.getMentorMenteeCountsByProgramId(id);
     }
 
     @GetMapping("/{id}/mentees")
     @ResponseStatus(HttpStatus.OK)
-    public List<Mentee> getAllMenteesByProgramId(@PathVariable long id)
-            throws ResourceNotFoundException {
-        return programService.getAllMenteesByProgramId(id);
+    public ResponseEntity<List<Mentee>> getAllMenteesByProgramId(@PathVariable long id,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) Integer limit)
+            throws ResourceNotFoundException, BadRequestException {
+        if (limit == null) {
+            return ResponseEntity.ok(programService.getAllMenteesByProgramId(id));
+        }
+        return programService.getMenteesPageByProgramId(id, cursor, limit).toResponseEntity();
+    }
+
+    @PostMapping("/{id}/matching")
+    @ResponseStatus(HttpStatus.OK)
+    public List<MenteeAssignmentDto> matchMentees(@PathVariable long id)
+            throws ResourceNotFoundException, BadRequestException {
+        return matchingService.matchMentees(id);
+    }
+
+    @GetMapping("/{id}/mentors/export")
+    public void exportMentorsByProgramId(@PathVariable long id,
+                                         @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                                         HttpServletResponse response)
+            throws ResourceNotFoundException, IOException {
+        exportService.checkProgramExists(id);
+        prepareExportResponse(response, "program-" + id + "-mentors", format);
+        exportService.exportMentors(id, format, response.getOutputStream());
+    }
+
+    @GetMapping("/{id}/mentees/export")
+    public void exportMenteesByProgramId(@PathVariable long id,
+                                         @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                                         HttpServletResponse response)
+            throws ResourceNotFoundException, IOException {
+        exportService.checkProgramExists(id);
+        prepareExportResponse(response, "program-" + id + "-mentees", format);
+        exportService.exportMentees(id, format, response.getOutputStream());
     }
 
     @GetMapping("/{id}/emails")
@@ -85,4 +145,12 @@ public class ProgramController {
             throws ResourceNotFoundException {
         programService.sendBulkEmails(id, bulkEmailDto);
     }
+
+    private void prepareExportResponse(HttpServletResponse response, String fileName, ExportFormat format) {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + fileName + "." + format.getExtension() + "\"");
+    }
 }
@@ -0,0 +1,20 @@
+package org.sefglobal.scholarx.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class ConflictException extends APIException {
+
+    public ConflictException() {
+        super();
+    }
+
+    public ConflictException(String msg) {
+        super(msg);
+    }
+
+    public ConflictException(String msg, Throwable e) {
+        super(msg, e);
+    }
+}
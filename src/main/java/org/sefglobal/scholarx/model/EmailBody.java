@@ -0,0 +1,47 @@
+package org.sefglobal.scholarx.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.io.Serializable;
+
+/**
+ * Email body shared by every {@link SentEmail} rendered from it. Rows are keyed by the
+ * SHA-256 hash of the content, so each distinct body is stored once
+ */
+@Entity
+@Table(name = "email_body")
+public class EmailBody implements Serializable {
+
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String content;
+
+    public EmailBody() {
+    }
+
+    public EmailBody(String hash, String content) {
+        this.hash = hash;
+        this.content = content;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+}
@@ -0,0 +1,18 @@
+package org.sefglobal.scholarx.model;
+
+import org.sefglobal.scholarx.util.EnrolmentState;
+
+/**
+ * Projection of an {@link EnrolledUser} with only the {@link Profile} details needed to
+ * send an email
+ */
+public interface EmailRecipient {
+
+    long getProfileId();
+
+    String getEmail();
+
+    String getName();
+
+    EnrolmentState getState();
+}
@@ -0,0 +1,28 @@
+package org.sefglobal.scholarx.model;
+
+import org.sefglobal.scholarx.util.EnrolmentRole;
+import org.sefglobal.scholarx.util.EnrolmentState;
+import org.sefglobal.scholarx.util.ProgramState;
+
+/**
+ * Projection of a {@link Program} the user is enrolled in, with the role and the
+ * {@link EnrolmentState} of the user in that program
+ */
+public interface EnrolledProgram {
+
+    long getId();
+
+    String getTitle();
+
+    String getHeadline();
+
+    String getImageUrl();
+
+    String getLandingPageUrl();
+
+    ProgramState getState();
+
+    EnrolmentRole getRole();
+
+    EnrolmentState getEnrolmentState();
+}
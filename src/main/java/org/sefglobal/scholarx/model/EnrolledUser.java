@@ -1,5 +1,6 @@
 package org.sefglobal.scholarx.model;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
@@ -7,13 +8,19 @@ import javax.persistence.Enumerated;
 import javax.persistence.Inheritance;
 import javax.persistence.InheritanceType;
 import javax.persistence.ManyToOne;
+import javax.persistence.Version;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonView;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.sefglobal.scholarx.util.EnrolmentState;
 import org.sefglobal.scholarx.util.Views;
 
 @Entity
 @Inheritance(strategy = InheritanceType.TABLE_PER_CLASS)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "enrolled_user")
 public abstract class EnrolledUser extends BaseScholarxModel {
 
   @JsonView(Views.Public.class)
@@ -29,6 +36,11 @@ public abstract class EnrolledUser extends BaseScholarxModel {
   @ManyToOne(optional = false)
   private Program program;
 
+  @JsonIgnore
+  @Version
+  @Column(columnDefinition = "bigint not null default 0")
+  private long version;
+
   public Profile getProfile() {
     return profile;
   }
@@ -52,4 +64,12 @@ public abstract class EnrolledUser extends BaseScholarxModel {
   public void setProgram(Program program) {
     this.program = program;
   }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public void setVersion(long version) {
+    this.version = version;
+  }
 }
@@ -0,0 +1,20 @@
+package org.sefglobal.scholarx.model;
+
+import org.sefglobal.scholarx.util.MentorCategory;
+
+/**
+ * Projection of a {@link Mentee} with only the details used by the matching engine. The
+ * category and expertise are the ones of the {@link Mentor} the mentee applied for
+ */
+public interface MatchableMentee {
+
+    long getId();
+
+    Long getAppliedMentorId();
+
+    MentorCategory getAppliedMentorCategory();
+
+    String getAppliedMentorExpertise();
+
+    Long getRejectedById();
+}
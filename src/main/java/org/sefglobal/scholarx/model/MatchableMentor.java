@@ -0,0 +1,19 @@
+package org.sefglobal.scholarx.model;
+
+import org.sefglobal.scholarx.util.MentorCategory;
+
+/**
+ * Projection of a {@link Mentor} with only the details used by the matching engine
+ */
+public interface MatchableMentor {
+
+    long getId();
+
+    int getSlots();
+
+    int getNoOfAssignedMentees();
+
+    MentorCategory getCategory();
+
+    String getExpertise();
+}
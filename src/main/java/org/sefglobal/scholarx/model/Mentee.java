@@ -6,11 +6,14 @@ import org.sefglobal.scholarx.util.Views;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.Index;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 
 @Entity
-@Table(name = "mentee")
+@Table(name = "mentee", indexes = {
+        @Index(name = "mentee_program_id_created_at_id_idx", columnList = "program_id, createdAt, id")
+})
 @JsonView(Views.Public.class)
 @JsonIgnoreProperties({"createdAt", "updatedAt"})
 public class Mentee extends EnrolledUser {
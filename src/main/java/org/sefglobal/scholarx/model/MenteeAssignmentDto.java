@@ -0,0 +1,22 @@
+package org.sefglobal.scholarx.model;
+
+public class MenteeAssignmentDto {
+	private Long menteeId;
+	private Long mentorId;
+
+	public Long getMenteeId() {
+		return menteeId;
+	}
+
+	public void setMenteeId(Long menteeId) {
+		this.menteeId = menteeId;
+	}
+
+	public Long getMentorId() {
+		return mentorId;
+	}
+
+	public void setMentorId(Long mentorId) {
+		this.mentorId = mentorId;
+	}
+}
@@ -0,0 +1,44 @@
+package org.sefglobal.scholarx.model;
+
+/**
+ * Outcome of one item of a batch update of {@link Mentee} objects. {@code status} is the
+ * HTTP status the single item endpoint would have answered with
+ */
+public class MenteeBatchResultDto {
+	private Long menteeId;
+	private int status;
+	private String message;
+
+	public MenteeBatchResultDto() {
+	}
+
+	public MenteeBatchResultDto(Long menteeId, int status, String message) {
+		this.menteeId = menteeId;
+		this.status = status;
+		this.message = message;
+	}
+
+	public Long getMenteeId() {
+		return menteeId;
+	}
+
+	public void setMenteeId(Long menteeId) {
+		this.menteeId = menteeId;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public void setStatus(int status) {
+		this.status = status;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public void setMessage(String message) {
+		this.message = message;
+	}
+}
@@ -0,0 +1,22 @@
+package org.sefglobal.scholarx.model;
+
+public class MenteeDecisionDto {
+	private Long menteeId;
+	private Boolean isApproved;
+
+	public Long getMenteeId() {
+		return menteeId;
+	}
+
+	public void setMenteeId(Long menteeId) {
+		this.menteeId = menteeId;
+	}
+
+	public Boolean getIsApproved() {
+		return isApproved;
+	}
+
+	public void setIsApproved(Boolean isApproved) {
+		this.isApproved = isApproved;
+	}
+}
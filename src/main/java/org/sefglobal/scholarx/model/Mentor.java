@@ -10,7 +10,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "mentor")
+@Table(name = "mentor", indexes = {
+        @Index(name = "mentor_created_at_id_idx", columnList = "createdAt, id"),
+        @Index(name = "mentor_program_id_created_at_id_idx", columnList = "program_id, createdAt, id")
+})
 @JsonIgnoreProperties({"createdAt", "updatedAt", "assignedMentees", "appliedMentees", "rejectedMentees"})
 public class Mentor extends EnrolledUser {
 
@@ -95,9 +98,15 @@ public class Mentor extends EnrolledUser {
     private int slots;
 
     @JsonView(Views.Public.class)
-    @Column
+    @Column(updatable = false)
     private int noOfAssignedMentees;
 
+    @Column(columnDefinition = "integer not null default 0", insertable = false, updatable = false)
+    private int noOfAppliedMentees;
+
+    @Column(columnDefinition = "integer not null default 0", insertable = false, updatable = false)
+    private int noOfRejectedMentees;
+
     @OneToMany(mappedBy = "assignedMentor")
     private List<Mentee> assignedMentees = new ArrayList<>();
 
@@ -179,6 +188,22 @@ public class Mentor extends EnrolledUser {
         this.noOfAssignedMentees = noOfAssignedMentees;
     }
 
+    public int getNoOfAppliedMentees() {
+        return noOfAppliedMentees;
+    }
+
+    public void setNoOfAppliedMentees(int noOfAppliedMentees) {
+        this.noOfAppliedMentees = noOfAppliedMentees;
+    }
+
+    public int getNoOfRejectedMentees() {
+        return noOfRejectedMentees;
+    }
+
+    public void setNoOfRejectedMentees(int noOfRejectedMentees) {
+        this.noOfRejectedMentees = noOfRejectedMentees;
+    }
+
     public String getName() {
         return name;
     }
@@ -0,0 +1,18 @@
+package org.sefglobal.scholarx.model;
+
+/**
+ * Projection of a {@link Mentor} with only the denormalized {@link Mentee} counters, so the
+ * counts of a whole program can be read without loading the mentee collections
+ */
+public interface MentorMenteeCounts {
+
+    long getMentorId();
+
+    int getSlots();
+
+    int getNoOfAppliedMentees();
+
+    int getNoOfAssignedMentees();
+
+    int getNoOfRejectedMentees();
+}
@@ -0,0 +1,28 @@
+package org.sefglobal.scholarx.model;
+
+/**
+ * Projection of an approved {@link Mentor} returned by the mentor search, without the long
+ * text fields of the application
+ */
+public interface MentorSearchHit {
+
+    long getId();
+
+    String getFirstName();
+
+    String getLastName();
+
+    String getImageUrl();
+
+    String getCategory();
+
+    String getExpertise();
+
+    String getInstitution();
+
+    String getPosition();
+
+    int getSlots();
+
+    int getNoOfAssignedMentees();
+}
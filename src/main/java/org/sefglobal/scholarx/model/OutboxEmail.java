@@ -0,0 +1,158 @@
+package org.sefglobal.scholarx.model;
+
+import org.sefglobal.scholarx.util.OutboxState;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import java.util.Date;
+
+@Entity
+@Table(name = "email_outbox")
+public class OutboxEmail extends BaseScholarxModel {
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column
+    private String subject;
+
+    @Column(columnDefinition = "TEXT")
+    private String message;
+
+    // Templated emails are rendered from the shared body when they are dispatched
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "body_hash")
+    private EmailBody body;
+
+    @Column(columnDefinition = "TEXT")
+    private String params;
+
+    @Column
+    private boolean showButton;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10, nullable = false)
+    private OutboxState state;
+
+    @Column
+    private int attempts;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(length = 64)
+    private String claimedBy;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column
+    private Date claimedAt;
+
+    // Defaults to the time of the insert in the database, which the claims are compared with
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false, insertable = false)
+    private Date nextAttemptAt;
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public EmailBody getBody() {
+        return body;
+    }
+
+    public void setBody(EmailBody body) {
+        this.body = body;
+    }
+
+    public String getParams() {
+        return params;
+    }
+
+    public void setParams(String params) {
+        this.params = params;
+    }
+
+    public boolean getShowButton() {
+        return showButton;
+    }
+
+    public void setShowButton(boolean showButton) {
+        this.showButton = showButton;
+    }
+
+    public OutboxState getState() {
+        return state;
+    }
+
+    public void setState(OutboxState state) {
+        this.state = state;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public void setClaimedBy(String claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+
+    public Date getClaimedAt() {
+        return claimedAt;
+    }
+
+    public void setClaimedAt(Date claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+
+    public Date getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Date nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+}
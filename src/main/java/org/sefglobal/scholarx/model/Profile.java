@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
@@ -14,6 +15,10 @@ import javax.persistence.OneToMany;
 import javax.persistence.Table;
 
 import com.fasterxml.jackson.annotation.JsonView;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.sefglobal.scholarx.util.ProfileType;
 import org.sefglobal.scholarx.util.Views;
 import org.springframework.security.core.GrantedAuthority;
@@ -24,6 +29,9 @@ import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 
 @Entity
 @Table(name = "profile")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "profile")
+@NaturalIdCache(region = "profile_uid")
 @JsonIgnoreProperties(value = {"createdAt", "updatedAt", "enrolledUsers",
         "authenticationContextClass", "nonce", "subject", "issuer",
         "audience", "expiresAt", "issuedAt", "authenticatedAt",
@@ -34,6 +42,7 @@ import org.springframework.security.oauth2.core.oidc.user.OidcUser;
         "zoneInfo", "locale", "phoneNumber", "phoneNumberVerified", "address"})
 public class Profile extends BaseScholarxModel implements OidcUser {
 
+  @NaturalId
   @Column(length = 36, nullable = false)
   private String uid;
 
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.ArrayList;
 import java.util.List;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
@@ -13,11 +14,15 @@ import javax.persistence.OneToMany;
 import javax.persistence.Table;
 
 import com.fasterxml.jackson.annotation.JsonView;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.sefglobal.scholarx.util.ProgramState;
 import org.sefglobal.scholarx.util.Views;
 
 @Entity
 @Table(name = "program")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "program")
 @JsonView(Views.Public.class)
 @JsonIgnoreProperties({ "createdAt", "updatedAt", "enrolledUsers" })
 public class Program extends BaseScholarxModel {
@@ -4,6 +4,9 @@ import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Table;
 import javax.persistence.ManyToOne;
+import javax.persistence.FetchType;
+import javax.persistence.JoinColumn;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import org.sefglobal.scholarx.util.ProgramState;
 import javax.persistence.EnumType;
@@ -19,6 +22,17 @@ public class SentEmail extends BaseScholarxModel {
     @Column(columnDefinition = "TEXT")
     private String message;
 
+    @Column(length = 64)
+    private String templateId;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "body_hash")
+    private EmailBody body;
+
+    @Column(columnDefinition = "TEXT")
+    private String params;
+
     @ManyToOne
     private Program program;
 
@@ -45,6 +59,30 @@ public class SentEmail extends BaseScholarxModel {
         this.message = message;
     } 
 
+    public String getTemplateId() {
+        return templateId;
+    }
+
+    public void setTemplateId(String templateId) {
+        this.templateId = templateId;
+    }
+
+    public EmailBody getBody() {
+        return body;
+    }
+
+    public void setBody(EmailBody body) {
+        this.body = body;
+    }
+
+    public String getParams() {
+        return params;
+    }
+
+    public void setParams(String params) {
+        this.params = params;
+    }
+
     public ProgramState getstate() {
         return state;
     }
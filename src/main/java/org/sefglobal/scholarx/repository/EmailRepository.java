@@ -6,6 +6,6 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface EmailRepository extends JpaRepository<SentEmail, Long> {
+public interface EmailRepository extends JpaRepository<SentEmail, Long>, EmailRepositoryCustom {
     List<SentEmail> findAllByProgram(long id);
 }
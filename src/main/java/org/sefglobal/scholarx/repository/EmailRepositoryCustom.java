@@ -0,0 +1,25 @@
+package org.sefglobal.scholarx.repository;
+
+import org.sefglobal.scholarx.model.SentEmail;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface EmailRepositoryCustom {
+
+    /**
+     * Inserts the given emails with JDBC batches instead of one statement per row
+     *
+     * @param emails which is the list of emails to be inserted
+     */
+    void insertAll(List<SentEmail> emails);
+
+    /**
+     * Reconstitutes the message of a sent email from its stored body and parameters.
+     * Emails recorded before bodies were deduplicated return their stored message
+     *
+     * @param id which is the id of the sent email
+     * @return the message, empty if the email doesn't exist or has no stored message
+     */
+    Optional<String> findMessageById(long id);
+}
@@ -0,0 +1,119 @@
+package org.sefglobal.scholarx.repository;
+
+import org.sefglobal.scholarx.model.EmailBody;
+import org.sefglobal.scholarx.model.SentEmail;
+import org.sefglobal.scholarx.util.EmailTemplateStore;
+import org.sefglobal.scholarx.util.SequenceIdAllocator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class EmailRepositoryCustomImpl implements EmailRepositoryCustom {
+
+    private static final String INSERT_QUERY = "INSERT INTO email " +
+            "(id, created_at, updated_at, email, message, template_id, body_hash, params, program_id, receiver_id, state) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_BODY_QUERY = "INSERT INTO email_body (hash, content) " +
+            "VALUES (?, ?) ON CONFLICT (hash) DO NOTHING";
+    private static final String SELECT_MESSAGE_QUERY = "SELECT e.message, e.template_id, e.params, b.hash, b.content " +
+            "FROM email e LEFT JOIN email_body b ON b.hash = e.body_hash " +
+            "WHERE e.id = ?";
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceIdAllocator sequenceIdAllocator;
+    private final EmailTemplateStore emailTemplateStore;
+    private final int batchSize;
+
+    public EmailRepositoryCustomImpl(JdbcTemplate jdbcTemplate,
+                                     SequenceIdAllocator sequenceIdAllocator,
+                                     EmailTemplateStore emailTemplateStore,
+                                     @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sequenceIdAllocator = sequenceIdAllocator;
+        this.emailTemplateStore = emailTemplateStore;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    @Transactional
+    public void insertAll(List<SentEmail> emails) {
+        if (emails.isEmpty()) {
+            return;
+        }
+        insertBodies(emails);
+
+        List<Long> ids = sequenceIdAllocator.nextIds(emails.size());
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int i = 0; i < emails.size(); i++) {
+            emails.get(i).setId(ids.get(i));
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_QUERY, emails, batchSize, (statement, email) -> {
+            statement.setLong(1, email.getId());
+            statement.setTimestamp(2, now);
+            statement.setTimestamp(3, now);
+            statement.setString(4, email.getEmail());
+            statement.setString(5, email.getMessage());
+            statement.setString(6, email.getTemplateId());
+            statement.setString(7, email.getBody() != null ? email.getBody().getHash() : null);
+            statement.setString(8, email.getParams());
+            statement.setLong(9, email.getProgramId().getId());
+            if (email.getReceiver() != null) {
+                statement.setLong(10, email.getReceiver().getId());
+            } else {
+                statement.setNull(10, Types.BIGINT);
+            }
+            statement.setString(11, email.getstate() != null ? email.getstate().name() : null);
+        });
+    }
+
+    @Override
+    public Optional<String> findMessageById(long id) {
+        List<String> messages = jdbcTemplate.query(SELECT_MESSAGE_QUERY, (resultSet, rowNum) -> {
+            String message = resultSet.getString("message");
+            String params = resultSet.getString("params");
+            if (message != null || params == null) {
+                return message;
+            }
+            String content = resultSet.getString("content");
+            if (content != null) {
+                return emailTemplateStore.render(new EmailBody(resultSet.getString("hash"), content), params);
+            }
+            String templateId = resultSet.getString("template_id");
+            return templateId != null ? emailTemplateStore.render(templateId, params) : null;
+        }, id);
+        if (messages.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(messages.get(0));
+    }
+
+    /**
+     * Writes the distinct bodies referenced by the given emails. Bodies which are already
+     * stored are skipped by the database
+     */
+    private void insertBodies(List<SentEmail> emails) {
+        Map<String, EmailBody> bodies = new LinkedHashMap<>();
+        for (SentEmail email : emails) {
+            if (email.getBody() != null) {
+                bodies.putIfAbsent(email.getBody().getHash(), email.getBody());
+            }
+        }
+        if (bodies.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_BODY_QUERY, new ArrayList<>(bodies.values()), batchSize,
+                (statement, body) -> {
+                    statement.setString(1, body.getHash());
+                    statement.setString(2, body.getContent());
+                });
+    }
+}
@@ -1,19 +1,32 @@
 package org.sefglobal.scholarx.repository;
 
+import org.sefglobal.scholarx.model.EmailRecipient;
+import org.sefglobal.scholarx.model.MatchableMentee;
 import org.sefglobal.scholarx.model.Mentee;
 import org.sefglobal.scholarx.util.EnrolmentState;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 @Transactional
-public interface MenteeRepository extends JpaRepository<Mentee, Long> {
+public interface MenteeRepository extends JpaRepository<Mentee, Long>, MenteeRepositoryCustom {
 
     List<Mentee> findAllByAssignedMentorIdAndState(long id, EnrolmentState state);
 
@@ -33,6 +46,88 @@ public interface MenteeRepository extends JpaRepository<Mentee, Long> {
 
     List<Mentee> findAllByProgramIdAndStateIn(long programId, List<EnrolmentState> states);
 
+    @EntityGraph(attributePaths = {"profile", "program", "appliedMentor", "appliedMentor.profile",
+            "assignedMentor", "assignedMentor.profile", "rejectedBy", "rejectedBy.profile"})
+    List<Mentee> findAllWithDetailsByProgramId(long id);
+
+    @EntityGraph(attributePaths = {"profile", "program", "appliedMentor", "appliedMentor.profile",
+            "assignedMentor", "assignedMentor.profile", "rejectedBy", "rejectedBy.profile"})
+    @Query("SELECT m FROM Mentee m " +
+           "WHERE m.program.id = :programId " +
+           "ORDER BY m.createdAt, m.id")
+    List<Mentee> findPageByProgramId(long programId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"profile", "program", "appliedMentor", "appliedMentor.profile",
+            "assignedMentor", "assignedMentor.profile", "rejectedBy", "rejectedBy.profile"})
+    @Query("SELECT m FROM Mentee m " +
+           "WHERE m.program.id = :programId " +
+           "AND (m.createdAt > :createdAt OR (m.createdAt = :createdAt AND m.id > :id)) " +
+           "ORDER BY m.createdAt, m.id")
+    List<Mentee> findPageByProgramIdAfter(long programId, Date createdAt, long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT m FROM Mentee m " +
+           "JOIN FETCH m.profile " +
+           "JOIN FETCH m.program " +
+           "JOIN FETCH m.appliedMentor am " +
+           "JOIN FETCH am.profile " +
+           "LEFT JOIN FETCH m.assignedMentor asm " +
+           "LEFT JOIN FETCH asm.profile " +
+           "LEFT JOIN FETCH m.rejectedBy rb " +
+           "LEFT JOIN FETCH rb.profile " +
+           "WHERE m.program.id = :programId " +
+           "ORDER BY m.id")
+    Stream<Mentee> streamAllByProgramId(long programId);
+
+    @Query("SELECT p.id AS profileId, p.email AS email, " +
+           "CONCAT(COALESCE(p.firstName, ''), ' ', COALESCE(p.lastName, '')) AS name, m.state AS state " +
+           "FROM Mentee m JOIN m.profile p " +
+           "WHERE m.program.id = :programId " +
+           "ORDER BY m.id")
+    List<EmailRecipient> findAllRecipientsByProgramId(long programId);
+
+    /**
+     * Streams one recipient per profile, taken from the first application of the profile.
+     * Rows are read in the order of the program profile index so the first ones arrive
+     * without sorting the applications of the program
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(
+            value = "SELECT DISTINCT ON (m.profile_id) " +
+                    "p.id AS \"profileId\", p.email AS \"email\", " +
+                    "CONCAT(COALESCE(p.first_name, ''), ' ', COALESCE(p.last_name, '')) AS \"name\", " +
+                    "m.state AS \"state\" " +
+                    "FROM mentee m " +
+                    "JOIN profile p ON p.id = m.profile_id " +
+                    "WHERE m.program_id = :programId " +
+                    "ORDER BY m.profile_id, m.id",
+            nativeQuery = true
+    )
+    Stream<EmailRecipient> streamDistinctRecipientsByProgramId(long programId);
+
+    @Query("SELECT p.id AS profileId, p.email AS email, " +
+           "CONCAT(COALESCE(p.firstName, ''), ' ', COALESCE(p.lastName, '')) AS name, m.state AS state " +
+           "FROM Mentee m JOIN m.profile p " +
+           "WHERE m.program.id = :programId " +
+           "AND m.state IN :states")
+    List<EmailRecipient> findAllRecipientsByProgramIdAndStateIn(long programId, List<EnrolmentState> states);
+
+    @Query("SELECT m.id AS id, a.id AS appliedMentorId, a.category AS appliedMentorCategory, " +
+           "a.expertise AS appliedMentorExpertise, r.id AS rejectedById " +
+           "FROM Mentee m " +
+           "LEFT JOIN m.appliedMentor a " +
+           "LEFT JOIN m.rejectedBy r " +
+           "WHERE m.program.id = :programId " +
+           "AND m.state IN :states " +
+           "ORDER BY m.createdAt, m.id")
+    List<MatchableMentee> findAllMatchableByProgramIdAndStateIn(long programId, List<EnrolmentState> states);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM Mentee m " +
+           "WHERE m.id IN :ids " +
+           "ORDER BY m.id")
+    List<Mentee> findAllForUpdateByIdIn(List<Long> ids);
+
     @Modifying
     @Query(
             value = "DELETE " +
@@ -49,7 +144,7 @@ public interface MenteeRepository extends JpaRepository<Mentee, Long> {
     @Query(
             value = "UPDATE " +
                         "mentee " +
-                    "SET state = 'REMOVED' " +
+                    "SET state = 'REMOVED', version = version + 1 " +
                     "WHERE profile_id = :profileId " +
                       "AND program_id = :programId " +
                       "AND mentor_id != :mentorId",
@@ -61,11 +156,47 @@ public interface MenteeRepository extends JpaRepository<Mentee, Long> {
     @Query(
             value = "UPDATE " +
                     "mentee " +
-                    "SET state = 'REMOVED' " +
+                    "SET state = 'REMOVED', version = version + 1 " +
                     "WHERE profile_id = :profileId " +
                     "AND program_id = :programId ",
             nativeQuery = true
     )
     void removeAllByProgramIdAndProfileId(long programId, long profileId);
 
+    @Modifying
+    @Query(
+            value = "UPDATE " +
+                    "mentee " +
+                    "SET state = 'REJECTED', " +
+                    "rejected_by_id = assigned_mentor_id, " +
+                    "assigned_mentor_id = NULL, " +
+                    "version = version + 1, " +
+                    "updated_at = NOW() " +
+                    "WHERE program_id = :id " +
+                    "AND state IN ('ASSIGNED', 'REJECTED')",
+            nativeQuery = true
+    )
+    void rejectAllAssignedByProgramId(long id);
+
+    @Modifying
+    @Query(
+            value = "UPDATE " +
+                    "mentee " +
+                    "SET state = 'APPROVED', version = version + 1, updated_at = NOW() " +
+                    "WHERE program_id = :id " +
+                    "AND state = 'ASSIGNED'",
+            nativeQuery = true
+    )
+    void approveAllAssignedByProgramId(long id);
+
+    @Modifying
+    @Query(
+            value = "UPDATE " +
+                    "mentee " +
+                    "SET state = 'FAILED_FROM_WILDCARD', version = version + 1, updated_at = NOW() " +
+                    "WHERE program_id = :id " +
+                    "AND state IN ('POOL', 'PENDING', 'REJECTED')",
+            nativeQuery = true
+    )
+    void failAllUnassignedByProgramId(long id);
 }
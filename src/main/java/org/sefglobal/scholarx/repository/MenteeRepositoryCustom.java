@@ -0,0 +1,33 @@
+package org.sefglobal.scholarx.repository;
+
+import java.util.List;
+
+public interface MenteeRepositoryCustom {
+
+    /**
+     * Approves the given mentees in a single statement. The update is synchronized on the
+     * mentee entity, so it only drops the cached enrolled users and the cached queries over
+     * them instead of every second level cache region
+     *
+     * @param ids which is the list of mentee ids
+     */
+    void approveAllByIdIn(List<Long> ids);
+
+    /**
+     * Rejects the given mentees in a single statement. Mentees which were assigned or
+     * approved are recorded as rejected by their assigned mentor. Cached data is dropped as
+     * in {@link #approveAllByIdIn}
+     *
+     * @param ids which is the list of mentee ids
+     */
+    void rejectAllByIdIn(List<Long> ids);
+
+    /**
+     * Assigns the given mentees to a mentor in a single statement. Cached data is dropped as
+     * in {@link #approveAllByIdIn}
+     *
+     * @param ids      which is the list of mentee ids
+     * @param mentorId which is the id of the assigned mentor
+     */
+    void assignAllByIdIn(List<Long> ids, long mentorId);
+}
@@ -0,0 +1,64 @@
+package org.sefglobal.scholarx.repository;
+
+import org.hibernate.query.NativeQuery;
+import org.sefglobal.scholarx.model.Mentee;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+public class MenteeRepositoryCustomImpl implements MenteeRepositoryCustom {
+
+    private static final String APPROVE_QUERY = "UPDATE mentee " +
+            "SET state = 'APPROVED', version = version + 1, updated_at = NOW() " +
+            "WHERE id IN (:ids)";
+    private static final String REJECT_QUERY = "UPDATE mentee " +
+            "SET state = 'REJECTED', " +
+            "rejected_by_id = CASE WHEN state IN ('ASSIGNED', 'APPROVED') " +
+            "THEN assigned_mentor_id ELSE rejected_by_id END, " +
+            "version = version + 1, " +
+            "updated_at = NOW() " +
+            "WHERE id IN (:ids)";
+    private static final String ASSIGN_QUERY = "UPDATE mentee " +
+            "SET state = 'ASSIGNED', " +
+            "assigned_mentor_id = :mentorId, " +
+            "version = version + 1, " +
+            "updated_at = NOW() " +
+            "WHERE id IN (:ids)";
+    private final EntityManager entityManager;
+
+    public MenteeRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional
+    public void approveAllByIdIn(List<Long> ids) {
+        menteeQuery(APPROVE_QUERY)
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public void rejectAllByIdIn(List<Long> ids) {
+        menteeQuery(REJECT_QUERY)
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public void assignAllByIdIn(List<Long> ids, long mentorId) {
+        menteeQuery(ASSIGN_QUERY)
+                .setParameter("ids", ids)
+                .setParameter("mentorId", mentorId)
+                .executeUpdate();
+    }
+
+    private NativeQuery<?> menteeQuery(String query) {
+        return entityManager.createNativeQuery(query)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Mentee.class);
+    }
+}
@@ -1,19 +1,44 @@
 package org.sefglobal.scholarx.repository;
 
+import org.sefglobal.scholarx.model.EmailRecipient;
+import org.sefglobal.scholarx.model.MatchableMentor;
 import org.sefglobal.scholarx.model.Mentor;
+import org.sefglobal.scholarx.model.MentorMenteeCounts;
+import org.sefglobal.scholarx.model.MentorSearchHit;
 import org.sefglobal.scholarx.util.EnrolmentState;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 @Transactional
-public interface MentorRepository extends JpaRepository<Mentor, Long> {
+public interface MentorRepository extends JpaRepository<Mentor, Long>, MentorRepositoryCustom {
+
+    /**
+     * Weighted text search vector of a mentor row. Expertise and category rank first, then
+     * the position and institution, then the bio. The GIN index on this expression is
+     * created by the V4 migration, so queries must use it verbatim
+     */
+    String SEARCH_VECTOR =
+            "(setweight(to_tsvector('english', coalesce(expertise, '')), 'A') || " +
+            "setweight(to_tsvector('english', replace(coalesce(category, ''), '_', ' ')), 'A') || " +
+            "setweight(to_tsvector('english', coalesce(\"position\", '') || ' ' || coalesce(institution, '')), 'B') || " +
+            "setweight(to_tsvector('english', coalesce(bio, '')), 'C'))";
 
     List<Mentor> findAllByProgramId(long id);
     List<Mentor> findAllByProgramIdAndStateIn(long id, List<EnrolmentState> states);
@@ -21,6 +46,106 @@ public interface MentorRepository extends JpaRepository<Mentor, Long> {
     Optional<Mentor> findByProfileIdAndProgramId(long profileId, long programId);
     List<Mentor> findAllByProfileId(long profileId);
     List<Mentor> findAllByProfileIdAndState(long profileId, EnrolmentState state);
+    boolean existsByProfileId(long profileId);
+
+    /**
+     * Cached mentor listing of a program. The counter updates of {@link MentorRepositoryCustom}
+     * only evict the updated mentor, so the cached ids stay valid across mentee applications
+     */
+    @EntityGraph(attributePaths = {"profile", "program"})
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Mentor> findAllWithProfileByProgramId(long id);
+
+    /**
+     * Cached mentor listing of a program filtered by state, invalidated the same way as
+     * {@link #findAllWithProfileByProgramId(long)}
+     */
+    @EntityGraph(attributePaths = {"profile", "program"})
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Mentor> findAllWithProfileByProgramIdAndStateIn(long id, List<EnrolmentState> states);
+
+    @EntityGraph(attributePaths = {"profile", "program"})
+    @Query("SELECT m FROM Mentor m ORDER BY m.createdAt, m.id")
+    List<Mentor> findPage(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"profile", "program"})
+    @Query("SELECT m FROM Mentor m " +
+           "WHERE m.createdAt > :createdAt OR (m.createdAt = :createdAt AND m.id > :id) " +
+           "ORDER BY m.createdAt, m.id")
+    List<Mentor> findPageAfter(Date createdAt, long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"profile", "program"})
+    @Query("SELECT m FROM Mentor m " +
+           "WHERE m.program.id = :programId " +
+           "AND m.state IN :states " +
+           "ORDER BY m.createdAt, m.id")
+    List<Mentor> findPageByProgramIdAndStateIn(long programId, List<EnrolmentState> states, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"profile", "program"})
+    @Query("SELECT m FROM Mentor m " +
+           "WHERE m.program.id = :programId " +
+           "AND m.state IN :states " +
+           "AND (m.createdAt > :createdAt OR (m.createdAt = :createdAt AND m.id > :id)) " +
+           "ORDER BY m.createdAt, m.id")
+    List<Mentor> findPageByProgramIdAndStateInAfter(long programId, List<EnrolmentState> states,
+                                                    Date createdAt, long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT m FROM Mentor m " +
+           "JOIN FETCH m.profile " +
+           "JOIN FETCH m.program " +
+           "WHERE m.program.id = :programId " +
+           "ORDER BY m.id")
+    Stream<Mentor> streamAllByProgramId(long programId);
+
+    @Query("SELECT p.id AS profileId, p.email AS email, " +
+           "CONCAT(COALESCE(p.firstName, ''), ' ', COALESCE(p.lastName, '')) AS name, m.state AS state " +
+           "FROM Mentor m JOIN m.profile p " +
+           "WHERE m.program.id = :programId")
+    List<EmailRecipient> findAllRecipientsByProgramId(long programId);
+
+    @Query("SELECT p.id AS profileId, p.email AS email, " +
+           "CONCAT(COALESCE(p.firstName, ''), ' ', COALESCE(p.lastName, '')) AS name, m.state AS state " +
+           "FROM Mentor m JOIN m.profile p " +
+           "WHERE m.program.id = :programId " +
+           "AND m.state IN :states")
+    List<EmailRecipient> findAllRecipientsByProgramIdAndStateIn(long programId, List<EnrolmentState> states);
+
+    @Query("SELECT m.id AS mentorId, m.slots AS slots, " +
+           "m.noOfAppliedMentees AS noOfAppliedMentees, " +
+           "m.noOfAssignedMentees AS noOfAssignedMentees, " +
+           "m.noOfRejectedMentees AS noOfRejectedMentees " +
+           "FROM Mentor m " +
+           "WHERE m.program.id = :programId " +
+           "ORDER BY m.id")
+    List<MentorMenteeCounts> findAllMenteeCountsByProgramId(long programId);
+
+    @Query(
+            value = "SELECT mentor.id AS \"id\", p.first_name AS \"firstName\", p.last_name AS \"lastName\", " +
+                    "p.image_url AS \"imageUrl\", mentor.category AS \"category\", " +
+                    "mentor.expertise AS \"expertise\", mentor.institution AS \"institution\", " +
+                    "mentor.\"position\" AS \"position\", mentor.slots AS \"slots\", " +
+                    "mentor.no_of_assigned_mentees AS \"noOfAssignedMentees\" " +
+                    "FROM mentor " +
+                    "JOIN profile p ON p.id = mentor.profile_id, " +
+                    "plainto_tsquery('english', :query) query " +
+                    "WHERE mentor.program_id = :programId " +
+                    "AND mentor.state = 'APPROVED' " +
+                    "AND " + SEARCH_VECTOR + " @@ query " +
+                    "ORDER BY ts_rank(" + SEARCH_VECTOR + ", query) DESC, mentor.id " +
+                    "LIMIT :limit OFFSET :offset",
+            nativeQuery = true
+    )
+    List<MentorSearchHit> searchApprovedByProgramId(long programId, String query, int limit, long offset);
+
+    @Query("SELECT m.id AS id, m.slots AS slots, m.noOfAssignedMentees AS noOfAssignedMentees, " +
+           "m.category AS category, m.expertise AS expertise " +
+           "FROM Mentor m " +
+           "WHERE m.program.id = :programId " +
+           "AND m.state = :state " +
+           "AND m.noOfAssignedMentees < m.slots " +
+           "ORDER BY m.id")
+    List<MatchableMentor> findAllMatchableByProgramIdAndState(long programId, EnrolmentState state);
 
     @Modifying
     @Query(
@@ -30,4 +155,40 @@ public interface MentorRepository extends JpaRepository<Mentor, Long> {
             nativeQuery = true
     )
     void deleteByProgramId(long id);
+
+    @Modifying
+    @Query(
+            value = "UPDATE " +
+                    "mentor " +
+                    "SET state = 'REJECTED', version = version + 1, updated_at = NOW() " +
+                    "WHERE program_id = :id " +
+                    "AND state = 'PENDING'",
+            nativeQuery = true
+    )
+    void rejectAllPendingByProgramId(long id);
+
+    @Modifying
+    @Query(
+            value = "UPDATE " +
+                    "mentor " +
+                    "SET no_of_assigned_mentees = 0, version = version + 1, updated_at = NOW() " +
+                    "WHERE program_id = :id",
+            nativeQuery = true
+    )
+    void resetNoOfAssignedMenteesByProgramId(long id);
+
+    @Modifying
+    @Query(
+            value = "UPDATE " +
+                    "mentor m " +
+                    "SET no_of_applied_mentees = " +
+                    "(SELECT COUNT(*) FROM mentee e WHERE e.applied_mentor_id = m.id), " +
+                    "no_of_rejected_mentees = " +
+                    "(SELECT COUNT(*) FROM mentee e WHERE e.rejected_by_id = m.id), " +
+                    "version = version + 1, " +
+                    "updated_at = NOW() " +
+                    "WHERE m.program_id = :id",
+            nativeQuery = true
+    )
+    void recountMenteesByProgramId(long id);
 }
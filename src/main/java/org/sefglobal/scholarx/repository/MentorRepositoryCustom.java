@@ -0,0 +1,27 @@
+package org.sefglobal.scholarx.repository;
+
+public interface MentorRepositoryCustom {
+
+    /**
+     * Adds the given deltas to the mentee counters of a mentor in a single statement. The
+     * update is synchronized on a query space of its own, so it neither clears the
+     * enrolled_user cache region nor the cached mentor queries. Only the cached copy of the
+     * updated mentor is evicted
+     *
+     * @param id       which is the id of the mentor
+     * @param applied  which is the change of the number of applied mentees
+     * @param assigned which is the change of the number of assigned mentees
+     * @param rejected which is the change of the number of rejected mentees
+     */
+    void incrementMenteeCounts(long id, int applied, int assigned, int rejected);
+
+    /**
+     * Adds the given count to the assigned mentees of a mentor if the mentor has enough free
+     * slots, with the same cache handling as {@link #incrementMenteeCounts}
+     *
+     * @param id    which is the id of the mentor
+     * @param count which is the number of mentees to be assigned
+     * @return 1 if the mentor had enough free slots, 0 otherwise
+     */
+    int incrementAssignedMenteesIfSlotsAvailable(long id, int count);
+}
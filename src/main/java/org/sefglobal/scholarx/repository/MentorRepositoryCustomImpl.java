@@ -0,0 +1,84 @@
+package org.sefglobal.scholarx.repository;
+
+import org.hibernate.query.NativeQuery;
+import org.sefglobal.scholarx.model.Mentor;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+
+/**
+ * Counter updates of the mentor table. The counters don't decide which mentors a cached
+ * query returns, as those filter on the program and the state only, and cached query
+ * results hold ids which are resolved through the entity cache. So the updates declare a
+ * query space no entity maps to and evict the updated mentor from the entity cache instead
+ * of letting Hibernate clear every region the mentor table belongs to
+ */
+public class MentorRepositoryCustomImpl implements MentorRepositoryCustom {
+
+    static final String COUNTS_QUERY_SPACE = "mentor_mentee_counts";
+    private static final String INCREMENT_COUNTS_QUERY = "UPDATE mentor " +
+            "SET no_of_applied_mentees = no_of_applied_mentees + :applied, " +
+            "no_of_assigned_mentees = no_of_assigned_mentees + :assigned, " +
+            "no_of_rejected_mentees = no_of_rejected_mentees + :rejected, " +
+            "version = version + 1 " +
+            "WHERE id = :id";
+    private static final String INCREMENT_ASSIGNED_QUERY = "UPDATE mentor " +
+            "SET no_of_assigned_mentees = no_of_assigned_mentees + :count, " +
+            "version = version + 1 " +
+            "WHERE id = :id " +
+            "AND no_of_assigned_mentees + :count <= slots";
+    private final EntityManager entityManager;
+
+    public MentorRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional
+    public void incrementMenteeCounts(long id, int applied, int assigned, int rejected) {
+        countsQuery(INCREMENT_COUNTS_QUERY)
+                .setParameter("id", id)
+                .setParameter("applied", applied)
+                .setParameter("assigned", assigned)
+                .setParameter("rejected", rejected)
+                .executeUpdate();
+        evict(id);
+    }
+
+    @Override
+    @Transactional
+    public int incrementAssignedMenteesIfSlotsAvailable(long id, int count) {
+        int updated = countsQuery(INCREMENT_ASSIGNED_QUERY)
+                .setParameter("id", id)
+                .setParameter("count", count)
+                .executeUpdate();
+        if (updated > 0) {
+            evict(id);
+        }
+        return updated;
+    }
+
+    private NativeQuery<?> countsQuery(String query) {
+        return entityManager.createNativeQuery(query)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(COUNTS_QUERY_SPACE);
+    }
+
+    /**
+     * Evicts the mentor right away and again once the transaction completes, so a copy
+     * cached by a concurrent load of the old row doesn't outlive the update
+     */
+    private void evict(long id) {
+        entityManager.getEntityManagerFactory().getCache().evict(Mentor.class, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    entityManager.getEntityManagerFactory().getCache().evict(Mentor.class, id);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.sefglobal.scholarx.repository;
+
+import org.sefglobal.scholarx.model.OutboxEmail;
+import org.sefglobal.scholarx.util.OutboxState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+
+@Repository
+@Transactional
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, Long>, OutboxEmailRepositoryCustom {
+
+    long countByState(OutboxState state);
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEmail e WHERE e.state = :state")
+    Date findOldestCreatedAtByState(OutboxState state);
+
+    @Modifying
+    @Query("UPDATE OutboxEmail e " +
+           "SET e.state = :pendingState, e.claimedBy = NULL, e.claimedAt = NULL, e.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE e.state = :sendingState " +
+           "AND e.claimedAt < :claimedBefore")
+    int releaseClaimsBefore(Date claimedBefore, OutboxState sendingState, OutboxState pendingState);
+
+    @Modifying
+    @Query("UPDATE OutboxEmail e " +
+           "SET e.state = :state, e.attempts = e.attempts + 1, e.lastError = NULL, e.message = NULL, e.params = NULL, " +
+           "e.claimedBy = NULL, e.claimedAt = NULL, e.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE e.id = :id " +
+           "AND e.claimedBy = :owner")
+    void recordDelivery(long id, String owner, OutboxState state);
+
+    @Modifying
+    @Query("UPDATE OutboxEmail e " +
+           "SET e.state = :state, e.attempts = e.attempts + 1, e.lastError = :error, " +
+           "e.nextAttemptAt = :nextAttemptAt, e.claimedBy = NULL, e.claimedAt = NULL, " +
+           "e.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE e.id = :id " +
+           "AND e.claimedBy = :owner")
+    void recordFailure(long id, String owner, OutboxState state, String error, Date nextAttemptAt);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEmail e " +
+           "WHERE e.state = :state " +
+           "AND e.updatedAt < :updatedBefore")
+    int deleteAllByStateAndUpdatedAtBefore(OutboxState state, Date updatedBefore);
+}
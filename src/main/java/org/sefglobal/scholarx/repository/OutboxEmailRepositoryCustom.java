@@ -0,0 +1,27 @@
+package org.sefglobal.scholarx.repository;
+
+import org.sefglobal.scholarx.model.OutboxEmail;
+
+import java.util.List;
+
+public interface OutboxEmailRepositoryCustom {
+
+    /**
+     * Inserts the given emails with JDBC batches instead of one statement per row
+     *
+     * @param emails which is the list of emails to be inserted
+     */
+    void insertAll(List<OutboxEmail> emails);
+
+    /**
+     * Claims the oldest pending emails which are due for an attempt and marks them as
+     * sending in a single statement. Rows locked by a concurrent claim are skipped, so an
+     * email is never claimed by two instances. Templated emails are returned with their
+     * body and parameters and are rendered by the worker delivering them
+     *
+     * @param owner which identifies the claiming instance
+     * @param limit which is the maximum number of emails to be claimed
+     * @return {@link List} of claimed emails in id order
+     */
+    List<OutboxEmail> claimPending(String owner, int limit);
+}
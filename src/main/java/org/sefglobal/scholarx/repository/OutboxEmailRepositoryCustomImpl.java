@@ -0,0 +1,122 @@
+package org.sefglobal.scholarx.repository;
+
+import org.sefglobal.scholarx.model.EmailBody;
+import org.sefglobal.scholarx.model.OutboxEmail;
+import org.sefglobal.scholarx.util.OutboxState;
+import org.sefglobal.scholarx.util.SequenceIdAllocator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class OutboxEmailRepositoryCustomImpl implements OutboxEmailRepositoryCustom {
+
+    private static final String INSERT_QUERY = "INSERT INTO email_outbox " +
+            "(id, created_at, updated_at, recipient, subject, message, body_hash, params, show_button, state, attempts) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_BODY_QUERY = "INSERT INTO email_body (hash, content) " +
+            "VALUES (?, ?) ON CONFLICT (hash) DO NOTHING";
+    private static final String CLAIM_QUERY = "WITH claimed AS (" +
+            "    UPDATE email_outbox " +
+            "    SET state = 'SENDING', claimed_by = ?, claimed_at = NOW(), updated_at = NOW() " +
+            "    WHERE id IN (" +
+            "        SELECT id FROM email_outbox " +
+            "        WHERE state = 'PENDING' AND next_attempt_at <= NOW() " +
+            "        ORDER BY id " +
+            "        LIMIT ? " +
+            "        FOR UPDATE SKIP LOCKED) " +
+            "    RETURNING id, recipient, subject, message, body_hash, params, show_button, attempts) " +
+            "SELECT c.*, b.content " +
+            "FROM claimed c LEFT JOIN email_body b ON b.hash = c.body_hash";
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceIdAllocator sequenceIdAllocator;
+    private final int batchSize;
+
+    public OutboxEmailRepositoryCustomImpl(JdbcTemplate jdbcTemplate,
+                                           SequenceIdAllocator sequenceIdAllocator,
+                                           @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sequenceIdAllocator = sequenceIdAllocator;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    @Transactional
+    public void insertAll(List<OutboxEmail> emails) {
+        if (emails.isEmpty()) {
+            return;
+        }
+        insertBodies(emails);
+
+        List<Long> ids = sequenceIdAllocator.nextIds(emails.size());
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int i = 0; i < emails.size(); i++) {
+            emails.get(i).setId(ids.get(i));
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_QUERY, emails, batchSize, (statement, email) -> {
+            statement.setLong(1, email.getId());
+            statement.setTimestamp(2, now);
+            statement.setTimestamp(3, now);
+            statement.setString(4, email.getRecipient());
+            statement.setString(5, email.getSubject());
+            statement.setString(6, email.getMessage());
+            statement.setString(7, email.getBody() != null ? email.getBody().getHash() : null);
+            statement.setString(8, email.getParams());
+            statement.setBoolean(9, email.getShowButton());
+            statement.setString(10, email.getState().name());
+            statement.setInt(11, email.getAttempts());
+        });
+    }
+
+    @Override
+    public List<OutboxEmail> claimPending(String owner, int limit) {
+        List<OutboxEmail> emails = jdbcTemplate.query(CLAIM_QUERY, (resultSet, rowNum) -> {
+            OutboxEmail email = new OutboxEmail();
+            email.setId(resultSet.getLong("id"));
+            email.setRecipient(resultSet.getString("recipient"));
+            email.setSubject(resultSet.getString("subject"));
+            email.setMessage(resultSet.getString("message"));
+            String content = resultSet.getString("content");
+            if (content != null) {
+                email.setBody(new EmailBody(resultSet.getString("body_hash"), content));
+            }
+            email.setParams(resultSet.getString("params"));
+            email.setShowButton(resultSet.getBoolean("show_button"));
+            email.setAttempts(resultSet.getInt("attempts"));
+            email.setState(OutboxState.SENDING);
+            email.setClaimedBy(owner);
+            return email;
+        }, owner, limit);
+        emails.sort(Comparator.comparingLong(OutboxEmail::getId));
+        return emails;
+    }
+
+    /**
+     * Writes the distinct bodies referenced by the given emails. Bodies which are already
+     * stored are skipped by the database
+     */
+    private void insertBodies(List<OutboxEmail> emails) {
+        Map<String, EmailBody> bodies = new LinkedHashMap<>();
+        for (OutboxEmail email : emails) {
+            if (email.getBody() != null) {
+                bodies.putIfAbsent(email.getBody().getHash(), email.getBody());
+            }
+        }
+        if (bodies.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_BODY_QUERY, new ArrayList<>(bodies.values()), batchSize,
+                (statement, body) -> {
+                    statement.setString(1, body.getHash());
+                    statement.setString(2, body.getContent());
+                });
+    }
+}
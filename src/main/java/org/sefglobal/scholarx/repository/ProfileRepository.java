@@ -4,11 +4,7 @@ import org.sefglobal.scholarx.model.Profile;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
-
 @Repository
-public interface ProfileRepository extends JpaRepository<Profile, Long> {
-    Optional<Profile> findByUid(String uid);
-    Boolean existsByUid(String uid);
+public interface ProfileRepository extends JpaRepository<Profile, Long>, ProfileRepositoryCustom {
     Boolean existsByEmail(String email);
 }
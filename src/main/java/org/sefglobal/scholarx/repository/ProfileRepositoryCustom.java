@@ -0,0 +1,34 @@
+package org.sefglobal.scholarx.repository;
+
+import org.sefglobal.scholarx.model.Profile;
+
+import java.util.Optional;
+
+public interface ProfileRepositoryCustom {
+
+    /**
+     * Loads a profile by its natural id. The uid is resolved through the natural id cache
+     * and the profile through the second level cache, so logins don't query the database
+     *
+     * @param uid which is the uid given by the OAuth2 provider
+     * @return the profile, empty if no profile has the uid
+     */
+    Optional<Profile> findByUid(String uid);
+
+    /**
+     * Checks whether a profile with the uid exists, through the same caches as {@link #findByUid}
+     *
+     * @param uid which is the uid given by the OAuth2 provider
+     * @return true if a profile has the uid
+     */
+    Boolean existsByUid(String uid);
+
+    /**
+     * Checks whether a profile exists by loading it through the second level cache instead
+     * of running a count query
+     *
+     * @param id which is the id of the profile
+     * @return true if the profile exists
+     */
+    boolean existsById(Long id);
+}
@@ -0,0 +1,37 @@
+package org.sefglobal.scholarx.repository;
+
+import org.hibernate.Session;
+import org.sefglobal.scholarx.model.Profile;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.Optional;
+
+public class ProfileRepositoryCustomImpl implements ProfileRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    public ProfileRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Profile> findByUid(String uid) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Profile.class)
+                .loadOptional(uid);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Boolean existsByUid(String uid) {
+        return findByUid(uid).isPresent();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean existsById(Long id) {
+        return entityManager.find(Profile.class, id) != null;
+    }
+}
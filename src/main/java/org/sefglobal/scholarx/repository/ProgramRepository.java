@@ -1,13 +1,55 @@
 package org.sefglobal.scholarx.repository;
 
+import org.sefglobal.scholarx.model.EnrolledProgram;
 import org.sefglobal.scholarx.model.Program;
 import org.sefglobal.scholarx.util.ProgramState;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 @Repository
 public interface ProgramRepository extends JpaRepository<Program, Long> {
+
+    @Override
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Program> findAll();
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Program> findAllByStateIn(List<ProgramState> states);
+
+    @Override
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("SELECT CASE WHEN COUNT(p) > 0 THEN true ELSE false END FROM Program p WHERE p.id = :id")
+    boolean existsById(Long id);
+
+    /**
+     * Reads the programs of a profile as a mentor and as a mentee in one query. Duplicate
+     * applications left from before a profile could apply only once per program are
+     * collapsed into the latest one which isn't removed
+     */
+    @Query(
+            value = "SELECT p.id AS \"id\", p.title AS \"title\", p.headline AS \"headline\", " +
+                    "p.image_url AS \"imageUrl\", p.landing_page_url AS \"landingPageUrl\", " +
+                    "p.state AS \"state\", e.role AS \"role\", e.state AS \"enrolmentState\" " +
+                    "FROM (" +
+                    "    SELECT program_id, 'MENTOR' AS role, state " +
+                    "    FROM mentor " +
+                    "    WHERE profile_id = :profileId " +
+                    "    UNION ALL " +
+                    "    (SELECT DISTINCT ON (program_id) program_id, 'MENTEE' AS role, state " +
+                    "    FROM mentee " +
+                    "    WHERE profile_id = :profileId " +
+                    "    ORDER BY program_id, state = 'REMOVED', id DESC)" +
+                    ") e " +
+                    "JOIN program p ON p.id = e.program_id " +
+                    "ORDER BY p.id DESC, e.role",
+            nativeQuery = true
+    )
+    List<EnrolledProgram> findAllEnrolledByProfileId(long profileId);
 }
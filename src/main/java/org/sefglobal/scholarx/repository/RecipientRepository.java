@@ -0,0 +1,107 @@
+package org.sefglobal.scholarx.repository;
+
+import org.sefglobal.scholarx.util.EnrolmentState;
+import org.sefglobal.scholarx.util.MailGroup;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves the email addresses of a list of {@link MailGroup}s with a single query
+ */
+@Repository
+public class RecipientRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public RecipientRepository(DataSource dataSource,
+                               @Value("${scholarx.email.recipient-fetch-size:500}") int fetchSize) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(fetchSize);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+    }
+
+    /**
+     * Streams the distinct email addresses of the enrolled users of a program who belong to
+     * any of the given mail groups. Rows are read with a cursor, so memory use doesn't grow
+     * with the number of recipients
+     *
+     * @param programId  which is the id of the program
+     * @param mailGroups which is the list of groups to be resolved
+     * @param consumer   which receives each email address once
+     */
+    @Transactional(readOnly = true)
+    public void streamEmailsByProgramIdAndMailGroups(long programId, List<MailGroup> mailGroups,
+                                                     Consumer<String> consumer) {
+        Set<EnrolmentState> mentorStates = EnumSet.noneOf(EnrolmentState.class);
+        Set<EnrolmentState> menteeStates = EnumSet.noneOf(EnrolmentState.class);
+        for (MailGroup mailGroup : mailGroups) {
+            switch (mailGroup) {
+                case ALL:
+                    mentorStates.addAll(EnumSet.allOf(EnrolmentState.class));
+                    menteeStates.addAll(EnumSet.allOf(EnrolmentState.class));
+                    break;
+                case ALL_MENTORS:
+                    mentorStates.addAll(EnumSet.allOf(EnrolmentState.class));
+                    break;
+                case ALL_MENTEES:
+                    menteeStates.addAll(EnumSet.allOf(EnrolmentState.class));
+                    break;
+                case APPROVED_MENTORS:
+                    mentorStates.add(EnrolmentState.APPROVED);
+                    break;
+                case REJECTED_MENTORS:
+                    mentorStates.add(EnrolmentState.REJECTED);
+                    break;
+                case APPROVED_MENTEES:
+                    menteeStates.add(EnrolmentState.APPROVED);
+                    break;
+                case DISCARDED_MENTEES:
+                    menteeStates.add(EnrolmentState.DISCARDED);
+                    menteeStates.add(EnrolmentState.FAILED_FROM_WILDCARD);
+                    break;
+            }
+        }
+
+        MapSqlParameterSource parameters = new MapSqlParameterSource("programId", programId);
+        List<String> selects = new ArrayList<>();
+        if (!mentorStates.isEmpty()) {
+            selects.add(buildSelect("mentor", "mentorStates", mentorStates, parameters));
+        }
+        if (!menteeStates.isEmpty()) {
+            selects.add(buildSelect("mentee", "menteeStates", menteeStates, parameters));
+        }
+        if (selects.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.query(String.join(" UNION ", selects), parameters,
+                (RowCallbackHandler) resultSet -> consumer.accept(resultSet.getString(1)));
+    }
+
+    private String buildSelect(String table, String parameterName, Set<EnrolmentState> states,
+                               MapSqlParameterSource parameters) {
+        String select = "SELECT p.email " +
+                        "FROM " + table + " e " +
+                        "JOIN profile p ON p.id = e.profile_id " +
+                        "WHERE e.program_id = :programId";
+        if (states.size() == EnrolmentState.values().length) {
+            return select;
+        }
+        parameters.addValue(parameterName,
+                states.stream().map(Enum::name).collect(Collectors.toList()));
+        return select + " AND e.state IN (:" + parameterName + ")";
+    }
+}
@@ -0,0 +1,286 @@
+package org.sefglobal.scholarx.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.sefglobal.scholarx.model.EmailBody;
+import org.sefglobal.scholarx.model.Mail;
+import org.sefglobal.scholarx.model.OutboxEmail;
+import org.sefglobal.scholarx.repository.OutboxEmailRepository;
+import org.sefglobal.scholarx.util.EmailTemplateStore;
+import org.sefglobal.scholarx.util.EmailUtil;
+import org.sefglobal.scholarx.util.OutboxState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PreDestroy;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable outbound email pipeline. Emails are persisted as {@link OutboxEmail} rows and
+ * delivered by a bounded pool of workers, so mass notifications survive restarts and never
+ * spawn more than {@code scholarx.email.worker-threads} concurrent SMTP sessions.
+ * <p>
+ * Each instance claims emails under its own id, so several instances share the outbox
+ * without sending an email twice. A claim which is not completed within
+ * {@code scholarx.email.claim-timeout} milliseconds, as when its instance stopped, is
+ * returned to the outbox. Failed attempts are retried with an exponential backoff and the
+ * body of a sent email is dropped, the row itself is deleted after
+ * {@code scholarx.email.sent-retention} milliseconds.
+ */
+@Service
+public class EmailOutboxService {
+
+    private final static Logger log = LoggerFactory.getLogger(EmailOutboxService.class);
+    private final OutboxEmailRepository outboxEmailRepository;
+    private final EmailUtil emailUtil;
+    private final EmailTemplateStore emailTemplateStore;
+    private final ThreadPoolExecutor executor;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBackoff;
+    private final long claimTimeout;
+    private final long sentRetention;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Timer sentTimer;
+    private final Timer failedTimer;
+
+    public EmailOutboxService(OutboxEmailRepository outboxEmailRepository,
+                              EmailUtil emailUtil,
+                              EmailTemplateStore emailTemplateStore,
+                              MeterRegistry meterRegistry,
+                              @Value("${scholarx.email.worker-threads:4}") int workerThreads,
+                              @Value("${scholarx.email.queue-capacity:200}") int queueCapacity,
+                              @Value("${scholarx.email.batch-size:100}") int batchSize,
+                              @Value("${scholarx.email.max-attempts:5}") int maxAttempts,
+                              @Value("${scholarx.email.retry-backoff:60000}") long retryBackoff,
+                              @Value("${scholarx.email.claim-timeout:600000}") long claimTimeout,
+                              @Value("${scholarx.email.sent-retention:2592000000}") long sentRetention) {
+        this.outboxEmailRepository = outboxEmailRepository;
+        this.emailUtil = emailUtil;
+        this.emailTemplateStore = emailTemplateStore;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.claimTimeout = claimTimeout;
+        this.sentRetention = sentRetention;
+        this.executor = new ThreadPoolExecutor(workerThreads, workerThreads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("email-dispatcher-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        this.sentCounter = meterRegistry.counter("scholarx.email.sent");
+        this.failedCounter = meterRegistry.counter("scholarx.email.failed");
+        this.sentTimer = meterRegistry.timer("scholarx.email.delivery", "outcome", "sent");
+        this.failedTimer = meterRegistry.timer("scholarx.email.delivery", "outcome", "failed");
+        Gauge.builder("scholarx.email.outbox.pending", outboxEmailRepository,
+                repository -> repository.countByState(OutboxState.PENDING))
+                .description("Emails waiting in the outbox")
+                .register(meterRegistry);
+        Gauge.builder("scholarx.email.outbox.oldest.age", outboxEmailRepository,
+                repository -> {
+                    Date oldest = repository.findOldestCreatedAtByState(OutboxState.PENDING);
+                    return oldest == null ? 0.0 : (System.currentTimeMillis() - oldest.getTime()) / 1000.0;
+                })
+                .description("Age of the oldest email waiting in the outbox")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("scholarx.email.dispatcher.queued", executor, pool -> pool.getQueue().size())
+                .description("Emails claimed from the outbox and waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("scholarx.email.dispatcher.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Workers currently delivering an email")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Persists an email to the outbox. The email is delivered asynchronously by
+     * {@link #dispatchPendingEmails()}
+     *
+     * @param recipient  which is the email address of the receiver
+     * @param subject    which is the subject of the email
+     * @param message    which is the html body of the email
+     * @param showButton whether the dashboard button should be rendered
+     */
+    public void enqueue(String recipient, String subject, String message, boolean showButton) {
+        outboxEmailRepository.save(newEmail(recipient, subject, message, showButton));
+    }
+
+    /**
+     * Persists a list of emails to the outbox with batched inserts
+     *
+     * @param emails which is the list of emails created with {@link #newEmail}
+     */
+    public void enqueueAll(List<OutboxEmail> emails) {
+        outboxEmailRepository.insertAll(emails);
+    }
+
+    /**
+     * Persists a list of emails to the outbox in a transaction of its own, so the emails can
+     * be dispatched before the caller's transaction completes
+     *
+     * @param emails which is the list of emails created with {@link #newEmail}
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void enqueueAllInNewTransaction(List<OutboxEmail> emails) {
+        outboxEmailRepository.insertAll(emails);
+    }
+
+    /**
+     * Creates a pending {@link OutboxEmail} without persisting it
+     *
+     * @param recipient  which is the email address of the receiver
+     * @param subject    which is the subject of the email
+     * @param message    which is the html body of the email
+     * @param showButton whether the dashboard button should be rendered
+     * @return the created {@link OutboxEmail}
+     */
+    public static OutboxEmail newEmail(String recipient, String subject, String message, boolean showButton) {
+        OutboxEmail email = new OutboxEmail();
+        email.setRecipient(recipient);
+        email.setSubject(subject);
+        email.setMessage(message);
+        email.setShowButton(showButton);
+        email.setState(OutboxState.PENDING);
+        return email;
+    }
+
+    /**
+     * Creates a pending {@link OutboxEmail} which is rendered from a shared body when it is
+     * dispatched, without persisting it
+     *
+     * @param recipient  which is the email address of the receiver
+     * @param subject    which is the subject of the email
+     * @param body       which is the shared body of the template
+     * @param params     which is the json object of the template parameters
+     * @param showButton whether the dashboard button should be rendered
+     * @return the created {@link OutboxEmail}
+     */
+    public static OutboxEmail newEmail(String recipient, String subject, EmailBody body, String params,
+                                       boolean showButton) {
+        OutboxEmail email = newEmail(recipient, subject, (String) null, showButton);
+        email.setBody(body);
+        email.setParams(params);
+        return email;
+    }
+
+    /**
+     * Claims pending emails and hands them to the worker pool. Only as many emails as the
+     * worker queue can hold are claimed, the rest stay in the outbox until the next run
+     */
+    @Scheduled(fixedDelayString = "${scholarx.email.poll-interval:5000}")
+    public void dispatchPendingEmails() {
+        int capacity = Math.min(batchSize, executor.getQueue().remainingCapacity());
+        while (capacity > 0) {
+            List<OutboxEmail> emails = outboxEmailRepository.claimPending(instanceId, capacity);
+            for (OutboxEmail email : emails) {
+                executor.execute(() -> deliver(email));
+            }
+
+            if (emails.size() < capacity) {
+                return;
+            }
+            capacity = Math.min(batchSize, executor.getQueue().remainingCapacity());
+        }
+    }
+
+    /**
+     * Returns emails whose claim expired to the outbox. The claiming instance either stopped
+     * before delivering them or is far behind, so they may be sent twice but are never lost
+     */
+    @Scheduled(fixedDelayString = "${scholarx.email.claim-check-interval:60000}")
+    public void releaseExpiredClaims() {
+        int count = outboxEmailRepository.releaseClaimsBefore(
+                new Date(System.currentTimeMillis() - claimTimeout), OutboxState.SENDING, OutboxState.PENDING);
+        if (count > 0) {
+            log.info("Re-queued " + count + " emails with an expired claim");
+        }
+    }
+
+    /**
+     * Deletes the sent emails kept for longer than the retention period. The audit record
+     * of each email is kept as a {@link org.sefglobal.scholarx.model.SentEmail}
+     */
+    @Scheduled(fixedDelayString = "${scholarx.email.purge-interval:3600000}")
+    public void purgeSentEmails() {
+        int count = outboxEmailRepository.deleteAllByStateAndUpdatedAtBefore(
+                OutboxState.SENT, new Date(System.currentTimeMillis() - sentRetention));
+        if (count > 0) {
+            log.info("Purged " + count + " sent emails from the outbox");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void deliver(OutboxEmail email) {
+        long start = System.nanoTime();
+        try {
+            emailUtil.sendEmail(toMail(email));
+            sentTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            outboxEmailRepository.recordDelivery(email.getId(), instanceId, OutboxState.SENT);
+            sentCounter.increment();
+        } catch (Exception exception) {
+            failedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.error("Email service error: ", exception);
+            failedCounter.increment();
+            int attempts = email.getAttempts() + 1;
+            OutboxState state = attempts < maxAttempts ? OutboxState.PENDING : OutboxState.FAILED;
+            outboxEmailRepository.recordFailure(email.getId(), instanceId, state, exception.getMessage(),
+                    new Date(System.currentTimeMillis() + backoff(attempts)));
+        }
+    }
+
+    /**
+     * @param attempts which is the number of failed attempts of an email
+     * @return the delay in milliseconds before the next attempt, doubled after every attempt
+     */
+    long backoff(int attempts) {
+        return retryBackoff << Math.min(attempts - 1, 10);
+    }
+
+    /**
+     * Builds the mail of an outbox email. Templated emails are rendered here rather than when
+     * they are claimed, so an email which can't be rendered fails on its own
+     */
+    private Mail toMail(OutboxEmail email) {
+        String message = email.getMessage();
+        if (message == null && email.getBody() != null) {
+            message = emailTemplateStore.render(email.getBody(), email.getParams());
+        }
+        Mail mail = new Mail();
+        mail.setEmail(email.getRecipient());
+        mail.setSubject(email.getSubject());
+        mail.setMessage(message);
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("emailAddress", email.getRecipient());
+        model.put("subject", email.getSubject());
+        model.put("message", message);
+        model.put("showButton", email.getShowButton());
+        mail.setProps(model);
+        return mail;
+    }
+}
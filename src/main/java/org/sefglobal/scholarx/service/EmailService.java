@@ -1,35 +1,48 @@
 package org.sefglobal.scholarx.service;
 
-import org.sefglobal.scholarx.model.Mail;
-import org.sefglobal.scholarx.util.EmailUtil;
+import org.sefglobal.scholarx.model.OutboxEmail;
+import org.sefglobal.scholarx.model.SentEmail;
+import org.sefglobal.scholarx.repository.EmailRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
 @Service
 public class EmailService {
 
-    private final EmailUtil emailUtil;
+    private final EmailOutboxService emailOutboxService;
+    private final EmailRepository emailRepository;
 
-    public EmailService(EmailUtil emailUtil) {
-        this.emailUtil = emailUtil;
+    public EmailService(EmailOutboxService emailOutboxService, EmailRepository emailRepository) {
+        this.emailOutboxService = emailOutboxService;
+        this.emailRepository = emailRepository;
     }
 
-    public void sendEmail(String emailAddress, String subject, String message, boolean showButton) throws IOException {
-        Mail mail = new Mail();
-        mail.setEmail(emailAddress);
-        mail.setSubject(subject);
-        mail.setMessage(message);
+    /**
+     * Queues an email for delivery. The email is persisted to the outbox and sent by the
+     * worker pool of {@link EmailOutboxService}
+     */
+    public void sendEmail(String emailAddress, String subject, String message, boolean showButton) {
+        emailOutboxService.enqueue(emailAddress, subject, message, showButton);
+    }
 
-        Map<String, Object> model = new HashMap<String, Object>();
-        model.put("emailAddress", emailAddress);
-        model.put("subject", subject);
-        model.put("message", message);
-        model.put("showButton", showButton);
-        mail.setProps(model);
+    /**
+     * Queues a list of emails for delivery and records them with batched inserts. Both are
+     * written in the caller's transaction, so a rolled back notification round leaves
+     * neither emails nor audit records behind
+     */
+    @Transactional
+    public void sendEmails(List<OutboxEmail> emails, List<SentEmail> sentEmails) {
+        emailOutboxService.enqueueAll(emails);
+        emailRepository.insertAll(sentEmails);
+    }
 
-        emailUtil.sendEmail(mail);
+    /**
+     * Queues a list of emails in a transaction of its own, so that delivery of a long
+     * running bulk send starts before all the recipients are resolved
+     */
+    public void sendEmailsInNewTransaction(List<OutboxEmail> emails) {
+        emailOutboxService.enqueueAllInNewTransaction(emails);
     }
 }
@@ -0,0 +1,70 @@
+package org.sefglobal.scholarx.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.sefglobal.scholarx.exception.NoContentException;
+import org.sefglobal.scholarx.model.EnrolledProgram;
+import org.sefglobal.scholarx.model.Program;
+import org.sefglobal.scholarx.repository.ProgramRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the {@link EnrolledProgram} objects of each user, read with a single query. The
+ * programs of a user are dropped after an {@link EnrolmentChangedEvent} for the user, after
+ * any {@link ProgramChangedEvent} as those may change the programs of every user, or once
+ * they are older than {@code scholarx.enrolled-programs.max-age} milliseconds
+ */
+@Service
+public class EnrolledProgramService {
+
+    private final static Logger log = LoggerFactory.getLogger(EnrolledProgramService.class);
+    private final ProgramRepository programRepository;
+    private final Cache<Long, List<EnrolledProgram>> enrolledPrograms;
+
+    public EnrolledProgramService(ProgramRepository programRepository,
+                                  @Value("${scholarx.enrolled-programs.max-age:300000}") long maxAge,
+                                  @Value("${scholarx.enrolled-programs.max-size:10000}") long maxSize) {
+        this.programRepository = programRepository;
+        this.enrolledPrograms = Caffeine.newBuilder()
+                .expireAfterWrite(maxAge, TimeUnit.MILLISECONDS)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * Retrieves the {@link Program} objects where the user is a {@link org.sefglobal.scholarx.model.Mentor}
+     * or a {@link org.sefglobal.scholarx.model.Mentee}, once for each role
+     *
+     * @param id which is the Profile id of the user
+     * @return {@link List} of {@link EnrolledProgram} objects, the latest programs first
+     *
+     * @throws NoContentException if the user hasn't enrolled in any program
+     */
+    public List<EnrolledProgram> getEnrolledPrograms(long id) throws NoContentException {
+        List<EnrolledProgram> programs = enrolledPrograms.get(id, programRepository::findAllEnrolledByProfileId);
+        if (programs.isEmpty()) {
+            String msg = "Error, User has not enrolled in any program.";
+            log.error(msg);
+            throw new NoContentException(msg);
+        }
+        return programs;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrolmentChanged(EnrolmentChangedEvent event) {
+        enrolledPrograms.invalidate(event.getProfileId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProgramChanged(ProgramChangedEvent event) {
+        enrolledPrograms.invalidateAll();
+        log.debug("Enrolled programs invalidated by a change of program " + event.getProgramId());
+    }
+}
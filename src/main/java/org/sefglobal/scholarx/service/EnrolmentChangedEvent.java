@@ -0,0 +1,23 @@
+package org.sefglobal.scholarx.service;
+
+/**
+ * Published when a user applies for or withdraws from a program, or when the state of an
+ * enrolment of the user changes. The cached programs of the user are dropped once the
+ * publishing transaction commits
+ */
+public class EnrolmentChangedEvent {
+
+    private final long profileId;
+
+    private EnrolmentChangedEvent(long profileId) {
+        this.profileId = profileId;
+    }
+
+    public static EnrolmentChangedEvent forProfile(long profileId) {
+        return new EnrolmentChangedEvent(profileId);
+    }
+
+    public long getProfileId() {
+        return profileId;
+    }
+}
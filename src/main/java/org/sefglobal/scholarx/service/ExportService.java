@@ -0,0 +1,198 @@
+package org.sefglobal.scholarx.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.sefglobal.scholarx.exception.ResourceNotFoundException;
+import org.sefglobal.scholarx.model.Mentee;
+import org.sefglobal.scholarx.model.Mentor;
+import org.sefglobal.scholarx.model.Profile;
+import org.sefglobal.scholarx.model.Program;
+import org.sefglobal.scholarx.repository.MenteeRepository;
+import org.sefglobal.scholarx.repository.MentorRepository;
+import org.sefglobal.scholarx.repository.ProgramRepository;
+import org.sefglobal.scholarx.util.ExportFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the {@link Mentor} and {@link Mentee} objects of a {@link Program} to an output
+ * stream. Rows are read with a database cursor and the persistence context is cleared as
+ * the export progresses, so memory use doesn't grow with the number of rows
+ */
+@Service
+public class ExportService {
+
+    private final static Logger log = LoggerFactory.getLogger(ExportService.class);
+    private final static int CLEAR_INTERVAL = 500;
+    private final static String[] MENTOR_COLUMNS = {"id", "state", "firstName", "lastName", "email", "name",
+            "category", "expertise", "institution", "position", "country", "slots", "noOfAssignedMentees"};
+    private final static String[] MENTEE_COLUMNS = {"id", "state", "firstName", "lastName", "email",
+            "university", "course", "year", "resumeUrl", "appliedMentorId", "appliedMentor",
+            "assignedMentorId", "assignedMentor"};
+    private final ProgramRepository programRepository;
+    private final MentorRepository mentorRepository;
+    private final MenteeRepository menteeRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter objectWriter;
+
+    public ExportService(ProgramRepository programRepository,
+                         MentorRepository mentorRepository,
+                         MenteeRepository menteeRepository,
+                         EntityManager entityManager,
+                         ObjectMapper objectMapper) {
+        this.programRepository = programRepository;
+        this.mentorRepository = mentorRepository;
+        this.menteeRepository = menteeRepository;
+        this.entityManager = entityManager;
+        this.objectWriter = objectMapper.writer()
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Checks whether a {@link Program} exists before a response is committed
+     *
+     * @param id which is the id of the {@link Program}
+     * @throws ResourceNotFoundException if the requesting {@link Program} doesn't exist
+     */
+    public void checkProgramExists(long id) throws ResourceNotFoundException {
+        if (!programRepository.existsById(id)) {
+            String msg = "Error, Program by id: " + id + " doesn't exist";
+            log.error(msg);
+            throw new ResourceNotFoundException(msg);
+        }
+    }
+
+    /**
+     * Writes all the {@link Mentor} objects of a {@link Program}
+     *
+     * @param id           which is the id of the {@link Program}
+     * @param format       which is the output format
+     * @param outputStream which is the stream the export is written to
+     * @throws IOException if writing to the output stream fails
+     */
+    @Transactional(readOnly = true)
+    public void exportMentors(long id, ExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writeCsvRow(writer, (Object[]) MENTOR_COLUMNS);
+        }
+        try (Stream<Mentor> mentors = mentorRepository.streamAllByProgramId(id)) {
+            Iterator<Mentor> iterator = mentors.iterator();
+            int count = 0;
+            while (iterator.hasNext()) {
+                Mentor mentor = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    Profile profile = mentor.getProfile();
+                    writeCsvRow(writer, mentor.getId(), mentor.getState(), profile.getFirstName(),
+                            profile.getLastName(), profile.getEmail(), mentor.getName(), mentor.getCategory(),
+                            mentor.getExpertise(), mentor.getInstitution(), mentor.getPosition(),
+                            mentor.getCountry(), mentor.getSlots(), mentor.getNoOfAssignedMentees());
+                } else {
+                    writeJsonRow(writer, mentor);
+                }
+                if (++count % CLEAR_INTERVAL == 0) {
+                    writer.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Writes all the {@link Mentee} objects of a {@link Program}
+     *
+     * @param id           which is the id of the {@link Program}
+     * @param format       which is the output format
+     * @param outputStream which is the stream the export is written to
+     * @throws IOException if writing to the output stream fails
+     */
+    @Transactional(readOnly = true)
+    public void exportMentees(long id, ExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writeCsvRow(writer, (Object[]) MENTEE_COLUMNS);
+        }
+        try (Stream<Mentee> mentees = menteeRepository.streamAllByProgramId(id)) {
+            Iterator<Mentee> iterator = mentees.iterator();
+            int count = 0;
+            while (iterator.hasNext()) {
+                Mentee mentee = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    Profile profile = mentee.getProfile();
+                    Mentor appliedMentor = mentee.getAppliedMentor();
+                    Mentor assignedMentor = mentee.getAssignedMentor();
+                    writeCsvRow(writer, mentee.getId(), mentee.getState(), profile.getFirstName(),
+                            profile.getLastName(), profile.getEmail(), mentee.getUniversity(), mentee.getCourse(),
+                            mentee.getYear(), mentee.getResumeUrl(),
+                            appliedMentor.getId(), appliedMentor.getProfile().getName(),
+                            assignedMentor != null ? assignedMentor.getId() : null,
+                            assignedMentor != null ? assignedMentor.getProfile().getName() : null);
+                } else {
+                    writeJsonRow(writer, mentee);
+                }
+                if (++count % CLEAR_INTERVAL == 0) {
+                    writer.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeJsonRow(Writer writer, Object value) throws IOException {
+        objectWriter.writeValue(writer, value);
+        writer.write('\n');
+    }
+
+    private void writeCsvRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(escapeCsv(values[i].toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Escapes a cell value. Values that a spreadsheet would evaluate as a
+     * formula are prefixed with a single quote and always quoted.
+     */
+    private static String escapeCsv(String value) {
+        if (isFormula(value)) {
+            return "\"'" + value.replace("\"", "\"\"") + '"';
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static boolean isFormula(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        char first = value.charAt(0);
+        return first == '=' || first == '+' || first == '-' || first == '@'
+                || first == '\t' || first == '\r';
+    }
+}
@@ -84,6 +84,16 @@ public class IntrospectionService {
             log.error(msg);
             throw new NoContentException(msg);
         }
+        return getDistinctPrograms(mentees);
+    }
+
+    /**
+     * Returns the distinct {@link Program} objects of a list of {@link Mentee} objects
+     *
+     * @param mentees which is the list of {@link Mentee} objects
+     * @return {@link List} of {@link Program} objects
+     */
+    public static List<Program> getDistinctPrograms(List<Mentee> mentees) {
         List<Program> programsList = new ArrayList<>();
         for (Mentee mentee : mentees) {
             programsList.add(mentee.getProgram());
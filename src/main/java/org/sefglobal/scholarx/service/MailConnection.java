@@ -1,17 +1,44 @@
 package org.sefglobal.scholarx.service;
 
+import org.simplejavamail.api.email.Email;
 import org.simplejavamail.api.mailer.Mailer;
 import org.simplejavamail.mailer.MailerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
 
+import javax.annotation.PreDestroy;
+
+/**
+ * Holds the application wide {@link Mailer}. The mailer keeps a pool of SMTP connections
+ * which is configured with the {@code simplejavamail.defaults.connectionpool.*} properties,
+ * so concurrent senders reuse open connections instead of connecting for every email
+ */
+@Service
 public class MailConnection {
 
-    private MailConnection(){}
-    private static Mailer instance = null;
+    private final static Logger log = LoggerFactory.getLogger(MailConnection.class);
+    private final Mailer mailer;
+
+    public MailConnection() {
+        this.mailer = MailerBuilder.buildMailer();
+    }
+
+    /**
+     * Sends an email over a pooled connection and waits until it is accepted by the server
+     *
+     * @param email which is the email to be sent
+     */
+    public void sendMail(Email email) {
+        mailer.sendMail(email);
+    }
 
-    public static Mailer getInstance() {
-        if (instance == null){
-            instance = MailerBuilder.buildMailer();
+    @PreDestroy
+    public void shutdown() {
+        try {
+            mailer.shutdownConnectionPool().get();
+        } catch (Exception exception) {
+            log.error("Error, Unable to close the SMTP connection pool: ", exception);
         }
-        return instance;
     }
 }
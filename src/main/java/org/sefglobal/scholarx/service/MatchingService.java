@@ -0,0 +1,153 @@
+package org.sefglobal.scholarx.service;
+
+import org.sefglobal.scholarx.exception.BadRequestException;
+import org.sefglobal.scholarx.exception.ResourceNotFoundException;
+import org.sefglobal.scholarx.model.MatchableMentee;
+import org.sefglobal.scholarx.model.MatchableMentor;
+import org.sefglobal.scholarx.model.MenteeAssignmentDto;
+import org.sefglobal.scholarx.model.Program;
+import org.sefglobal.scholarx.repository.MenteeRepository;
+import org.sefglobal.scholarx.repository.MentorRepository;
+import org.sefglobal.scholarx.repository.ProgramRepository;
+import org.sefglobal.scholarx.util.EnrolmentState;
+import org.sefglobal.scholarx.util.MatchingEngine;
+import org.sefglobal.scholarx.util.ProgramState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+public class MatchingService {
+
+    private final static Logger log = LoggerFactory.getLogger(MatchingService.class);
+    private static final List<EnrolmentState> UNASSIGNED_MENTEE_STATES =
+            Arrays.asList(EnrolmentState.POOL, EnrolmentState.PENDING, EnrolmentState.REJECTED);
+    private final ProgramRepository programRepository;
+    private final MentorRepository mentorRepository;
+    private final MenteeRepository menteeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public MatchingService(ProgramRepository programRepository,
+                           MentorRepository mentorRepository,
+                           MenteeRepository menteeRepository,
+                           ApplicationEventPublisher eventPublisher) {
+        this.programRepository = programRepository;
+        this.mentorRepository = mentorRepository;
+        this.menteeRepository = menteeRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Assigns the unassigned {@link org.sefglobal.scholarx.model.Mentee} objects of a
+     * {@link Program} to the approved mentors with free slots using the {@link MatchingEngine}.
+     * A mentee is never matched with the mentor who rejected them. The assignments are
+     * written with one set-based update per mentor
+     *
+     * @param id which is the id of the {@link Program}
+     * @return {@link List} of the assignments made
+     *
+     * @throws ResourceNotFoundException is thrown if the {@link Program} doesn't exist
+     * @throws BadRequestException       is thrown if the {@link Program} is not in a valid state
+     */
+    @Transactional
+    public List<MenteeAssignmentDto> matchMentees(long id)
+            throws ResourceNotFoundException, BadRequestException {
+        Optional<Program> program = programRepository.findById(id);
+        if (!program.isPresent()) {
+            String msg = "Error, Mentees of program with id: " + id + " cannot be matched. " +
+                         "Program doesn't exist.";
+            log.error(msg);
+            throw new ResourceNotFoundException(msg);
+        }
+        ProgramState state = program.get().getState();
+        if (!ProgramState.ADMIN_MENTEE_FILTRATION.equals(state) && !ProgramState.WILDCARD.equals(state)) {
+            String msg = "Error, Mentees of program with id: " + id + " cannot be matched. " +
+                         "Program is not in a valid state.";
+            log.error(msg);
+            throw new BadRequestException(msg);
+        }
+
+        List<MatchableMentor> mentors =
+                mentorRepository.findAllMatchableByProgramIdAndState(id, EnrolmentState.APPROVED);
+        List<MatchableMentee> mentees =
+                menteeRepository.findAllMatchableByProgramIdAndStateIn(id, UNASSIGNED_MENTEE_STATES);
+        if (mentors.isEmpty() || mentees.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        int[] capacities = new int[mentors.size()];
+        int[] categories = new int[mentors.size()];
+        long[] expertise = new long[mentors.size()];
+        Map<Long, Integer> mentorIndexes = new HashMap<>();
+        for (int i = 0; i < mentors.size(); i++) {
+            MatchableMentor mentor = mentors.get(i);
+            capacities[i] = mentor.getSlots() - mentor.getNoOfAssignedMentees();
+            categories[i] = mentor.getCategory() != null ? mentor.getCategory().ordinal() : MatchingEngine.NO_CATEGORY;
+            expertise[i] = MatchingEngine.expertiseMask(mentor.getExpertise());
+            mentorIndexes.put(mentor.getId(), i);
+        }
+
+        int[] appliedMentors = new int[mentees.size()];
+        int[] menteeCategories = new int[mentees.size()];
+        long[] menteeExpertise = new long[mentees.size()];
+        int[] excludedMentors = new int[mentees.size()];
+        for (int i = 0; i < mentees.size(); i++) {
+            MatchableMentee mentee = mentees.get(i);
+            appliedMentors[i] = indexOf(mentorIndexes, mentee.getAppliedMentorId());
+            menteeCategories[i] = mentee.getAppliedMentorCategory() != null ?
+                    mentee.getAppliedMentorCategory().ordinal() : MatchingEngine.NO_CATEGORY;
+            menteeExpertise[i] = MatchingEngine.expertiseMask(mentee.getAppliedMentorExpertise());
+            excludedMentors[i] = indexOf(mentorIndexes, mentee.getRejectedById());
+        }
+
+        int[] matches = new MatchingEngine(capacities, categories, expertise)
+                .match(appliedMentors, menteeCategories, menteeExpertise, excludedMentors);
+
+        Map<Integer, List<Long>> menteeIdsByMentor = new LinkedHashMap<>();
+        for (int i = 0; i < matches.length; i++) {
+            if (matches[i] != MatchingEngine.NO_MENTOR) {
+                menteeIdsByMentor.computeIfAbsent(matches[i], mentor -> new ArrayList<>()).add(mentees.get(i).getId());
+            }
+        }
+
+        List<MenteeAssignmentDto> assignments = new ArrayList<>();
+        for (Map.Entry<Integer, List<Long>> entry : menteeIdsByMentor.entrySet()) {
+            long mentorId = mentors.get(entry.getKey()).getId();
+            List<Long> menteeIds = entry.getValue();
+            if (mentorRepository.incrementAssignedMenteesIfSlotsAvailable(mentorId, menteeIds.size()) == 0) {
+                log.warn("Skipped matching " + menteeIds.size() + " mentees with mentor with id: " + mentorId +
+                         " as the free slots of the mentor changed");
+                continue;
+            }
+            menteeRepository.assignAllByIdIn(menteeIds, mentorId);
+            for (Long menteeId : menteeIds) {
+                MenteeAssignmentDto assignment = new MenteeAssignmentDto();
+                assignment.setMenteeId(menteeId);
+                assignment.setMentorId(mentorId);
+                assignments.add(assignment);
+            }
+        }
+        log.info("Matched " + assignments.size() + " of " + mentees.size() + " mentees of program with id: " + id);
+        eventPublisher.publishEvent(MentorDirectoryChangedEvent.forProgram(id));
+        eventPublisher.publishEvent(ProgramChangedEvent.forProgram(id));
+        return assignments;
+    }
+
+    private static int indexOf(Map<Long, Integer> mentorIndexes, Long mentorId) {
+        if (mentorId == null) {
+            return MatchingEngine.NO_MENTOR;
+        }
+        Integer index = mentorIndexes.get(mentorId);
+        return index != null ? index : MatchingEngine.NO_MENTOR;
+    }
+}
@@ -1,10 +1,16 @@
 package org.sefglobal.scholarx.service;
 
+import org.sefglobal.scholarx.exception.APIException;
 import org.sefglobal.scholarx.exception.BadRequestException;
+import org.sefglobal.scholarx.exception.ConflictException;
 import org.sefglobal.scholarx.exception.ResourceNotFoundException;
 import org.sefglobal.scholarx.exception.UnauthorizedException;
 import org.sefglobal.scholarx.model.Mentee;
+import org.sefglobal.scholarx.model.MenteeAssignmentDto;
+import org.sefglobal.scholarx.model.MenteeBatchResultDto;
+import org.sefglobal.scholarx.model.MenteeDecisionDto;
 import org.sefglobal.scholarx.model.Mentor;
+import org.sefglobal.scholarx.model.MentorMenteeCounts;
 import org.sefglobal.scholarx.model.Program;
 import org.sefglobal.scholarx.repository.MenteeRepository;
 import org.sefglobal.scholarx.repository.MentorRepository;
@@ -12,28 +18,51 @@ import org.sefglobal.scholarx.util.EnrolmentState;
 import org.sefglobal.scholarx.util.ProgramState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class MenteeService {
 
     private final static Logger log = LoggerFactory.getLogger(MenteeService.class);
+    private static final int MAX_UPDATE_ATTEMPTS = 3;
+    private static final int MAX_BATCH_SIZE = 500;
     private final MenteeRepository menteeRepository;
     private final MentorRepository mentorRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
     
-    public MenteeService(MenteeRepository menteeRepository, MentorRepository mentorRepository) {
+    public MenteeService(MenteeRepository menteeRepository, MentorRepository mentorRepository,
+                         ApplicationEventPublisher eventPublisher,
+                         PlatformTransactionManager transactionManager) {
         this.menteeRepository = menteeRepository;
         this.mentorRepository = mentorRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
-     * Delete a existing {@link Mentee}
+     * Delete a existing {@link Mentee} and take it off the mentee counters of the
+     * {@link Mentor} objects it applied to, was approved by or was rejected by
      *
      * @param id which is the identifier of the {@link Mentee}
      * @throws ResourceNotFoundException if {@link Mentee} for {@code id} doesn't exist
      */
+    @Transactional
     public void deleteMentee(long id)
             throws ResourceNotFoundException {
         Optional<Mentee> optionalMentee = menteeRepository.findById(id);
@@ -43,7 +72,18 @@ public class MenteeService {
             log.error(msg);
             throw new ResourceNotFoundException(msg);
         }
+        Mentee mentee = optionalMentee.get();
+        if (mentee.getAppliedMentor() != null) {
+            mentorRepository.incrementMenteeCounts(mentee.getAppliedMentor().getId(), -1, 0, 0);
+        }
+        if (mentee.getAssignedMentor() != null && EnrolmentState.APPROVED.equals(mentee.getState())) {
+            mentorRepository.incrementMenteeCounts(mentee.getAssignedMentor().getId(), 0, -1, 0);
+        }
+        if (mentee.getRejectedBy() != null) {
+            mentorRepository.incrementMenteeCounts(mentee.getRejectedBy().getId(), 0, 0, -1);
+        }
         menteeRepository.deleteById(id);
+        eventPublisher.publishEvent(EnrolmentChangedEvent.forProfile(optionalMentee.get().getProfile().getId()));
     }
 
     /**
@@ -58,14 +98,28 @@ public class MenteeService {
      * @throws UnauthorizedException     is thrown if the requesting user is not the assigned mentor
      * @throws BadRequestException       is thrown if the {@link Mentee} is removed
      * @throws BadRequestException       is thrown if the {@link Boolean} is null
+     * @throws BadRequestException       is thrown if the {@link Mentor} has no available slots
+     * @throws ConflictException         is thrown if the {@link Mentee} keeps being updated concurrently
      */
     public Mentee approveOrRejectMentee(long menteeId, long profileId, Boolean isApproved)
-            throws ResourceNotFoundException, BadRequestException, UnauthorizedException {
+            throws ResourceNotFoundException, BadRequestException, UnauthorizedException, ConflictException {
         if (null == isApproved){
             String msg = "Error, Value cannot be null.";
             log.error(msg);
             throw new BadRequestException(msg);
         }
+        try {
+            return updateWithRetry(menteeId, () -> applyApproveOrRejectMentee(menteeId, profileId, isApproved));
+        } catch (MenteeUpdateException exception) {
+            rethrowIf(exception.getCause(), ResourceNotFoundException.class);
+            rethrowIf(exception.getCause(), BadRequestException.class);
+            rethrowIf(exception.getCause(), UnauthorizedException.class);
+            throw exception;
+        }
+    }
+
+    private Mentee applyApproveOrRejectMentee(long menteeId, long profileId, boolean isApproved)
+            throws ResourceNotFoundException, BadRequestException, UnauthorizedException {
         Optional<Mentee> optionalMentee = menteeRepository.findById(menteeId);
         if (!optionalMentee.isPresent()) {
             String msg = "Error, Mentee cannot be approved/rejected. " +
@@ -89,19 +143,133 @@ public class MenteeService {
         }
 
         Mentor mentor = optionalMentee.get().getAssignedMentor();
+        Mentor previouslyRejectedBy = optionalMentee.get().getRejectedBy();
+        int rejected = previouslyRejectedBy != null && previouslyRejectedBy.getId() == mentor.getId() ? 0 : 1;
         if (isApproved) {
-            mentor.setNoOfAssignedMentees(mentor.getNoOfAssignedMentees() + 1);
+            if (!EnrolmentState.APPROVED.equals(optionalMentee.get().getState())
+                    && mentorRepository.incrementAssignedMenteesIfSlotsAvailable(mentor.getId(), 1) == 0) {
+                String msg = "Error, Mentee cannot be approved. " +
+                             "Mentor with id: " + mentor.getId() + " has no available slots.";
+                log.error(msg);
+                throw new BadRequestException(msg);
+            }
         } else if (optionalMentee.get().getState().equals(EnrolmentState.ASSIGNED)) {
             optionalMentee.get().setRejectedBy(mentor);
+            mentorRepository.incrementMenteeCounts(mentor.getId(), 0, 0, rejected);
         } else if (optionalMentee.get().getState().equals(EnrolmentState.APPROVED)) {
             optionalMentee.get().setRejectedBy(mentor);
-            mentor.setNoOfAssignedMentees(mentor.getNoOfAssignedMentees() - 1);
+            mentorRepository.incrementMenteeCounts(mentor.getId(), 0, -1, rejected);
         }
 
         optionalMentee.get().setState(isApproved?EnrolmentState.APPROVED:EnrolmentState.REJECTED);
-        return menteeRepository.save(optionalMentee.get());
+        Mentee savedMentee = menteeRepository.save(optionalMentee.get());
+        eventPublisher.publishEvent(MentorDirectoryChangedEvent.forProgram(optionalMentee.get().getProgram().getId()));
+        eventPublisher.publishEvent(EnrolmentChangedEvent.forProfile(optionalMentee.get().getProfile().getId()));
+        return savedMentee;
     }
     
+    /**
+     * Approves or rejects a batch of {@link Mentee} objects of the requesting mentor in a
+     * single transaction. The mentees are locked while the batch is validated and the valid
+     * decisions are applied with set-based updates. Approvals of a {@link Mentor} either all
+     * fit in the free slots or are all refused
+     *
+     * @param profileId which is the profile identifier of the requesting user
+     * @param decisions which is the list of decisions to be applied
+     * @return {@link List} of {@link MenteeBatchResultDto} in the order of the decisions
+     *
+     * @throws BadRequestException is thrown if the batch is empty, too large or has repeated mentees
+     */
+    @Transactional
+    public List<MenteeBatchResultDto> approveOrRejectMentees(long profileId, List<MenteeDecisionDto> decisions)
+            throws BadRequestException {
+        List<Long> menteeIds = new ArrayList<>();
+        for (MenteeDecisionDto decision : decisions) {
+            menteeIds.add(decision.getMenteeId());
+        }
+        validateBatch(menteeIds);
+
+        Map<Long, Mentee> mentees = findAllForUpdate(menteeIds);
+        Map<Long, MenteeBatchResultDto> results = new HashMap<>();
+        Map<Long, List<Long>> approvalsByMentor = new LinkedHashMap<>();
+        Map<Long, int[]> rejectionCountsByMentor = new HashMap<>();
+        List<Long> rejections = new ArrayList<>();
+        for (MenteeDecisionDto decision : decisions) {
+            long menteeId = decision.getMenteeId();
+            Mentee mentee = mentees.get(menteeId);
+            if (null == decision.getIsApproved()) {
+                results.put(menteeId, failure(menteeId, HttpStatus.BAD_REQUEST,
+                        "Error, Value cannot be null."));
+            } else if (mentee == null) {
+                results.put(menteeId, failure(menteeId, HttpStatus.NOT_FOUND,
+                        "Error, Mentee with id: " + menteeId + " doesn't exist."));
+            } else if (mentee.getAssignedMentor() == null ||
+                       mentee.getAssignedMentor().getProfile().getId() != profileId) {
+                results.put(menteeId, failure(menteeId, HttpStatus.FORBIDDEN,
+                        "Error, Mentee with id: " + menteeId + " is not a mentee " +
+                        "of mentor with profile id: " + profileId + "."));
+            } else if (EnrolmentState.REMOVED.equals(mentee.getState())) {
+                results.put(menteeId, failure(menteeId, HttpStatus.BAD_REQUEST,
+                        "Error, Mentee with id: " + menteeId + " is removed."));
+            } else if (decision.getIsApproved()) {
+                if (EnrolmentState.APPROVED.equals(mentee.getState())) {
+                    results.put(menteeId, success(menteeId));
+                } else {
+                    approvalsByMentor.computeIfAbsent(mentee.getAssignedMentor().getId(), id -> new ArrayList<>())
+                            .add(menteeId);
+                }
+            } else {
+                Mentor mentor = mentee.getAssignedMentor();
+                if (EnrolmentState.ASSIGNED.equals(mentee.getState()) ||
+                    EnrolmentState.APPROVED.equals(mentee.getState())) {
+                    int[] counts = rejectionCountsByMentor.computeIfAbsent(mentor.getId(), id -> new int[2]);
+                    if (EnrolmentState.APPROVED.equals(mentee.getState())) {
+                        counts[0]--;
+                    }
+                    if (mentee.getRejectedBy() == null || mentee.getRejectedBy().getId() != mentor.getId()) {
+                        counts[1]++;
+                    }
+                }
+                rejections.add(menteeId);
+            }
+        }
+
+        List<Long> approvals = new ArrayList<>();
+        for (Map.Entry<Long, List<Long>> entry : approvalsByMentor.entrySet()) {
+            int count = entry.getValue().size();
+            if (mentorRepository.incrementAssignedMenteesIfSlotsAvailable(entry.getKey(), count) == 0) {
+                for (Long menteeId : entry.getValue()) {
+                    results.put(menteeId, failure(menteeId, HttpStatus.BAD_REQUEST,
+                            "Error, Mentor with id: " + entry.getKey() + " doesn't have " +
+                            count + " available slots."));
+                }
+            } else {
+                approvals.addAll(entry.getValue());
+            }
+        }
+        if (!approvals.isEmpty()) {
+            menteeRepository.approveAllByIdIn(approvals);
+        }
+        if (!rejections.isEmpty()) {
+            menteeRepository.rejectAllByIdIn(rejections);
+        }
+        for (Map.Entry<Long, int[]> entry : rejectionCountsByMentor.entrySet()) {
+            mentorRepository.incrementMenteeCounts(entry.getKey(), 0, entry.getValue()[0], entry.getValue()[1]);
+        }
+        List<Long> decidedMenteeIds = new ArrayList<>(approvals);
+        decidedMenteeIds.addAll(rejections);
+        Set<Long> programIds = new HashSet<>();
+        for (Long menteeId : decidedMenteeIds) {
+            results.put(menteeId, success(menteeId));
+            programIds.add(mentees.get(menteeId).getProgram().getId());
+            eventPublisher.publishEvent(EnrolmentChangedEvent.forProfile(mentees.get(menteeId).getProfile().getId()));
+        }
+        for (Long programId : programIds) {
+            eventPublisher.publishEvent(MentorDirectoryChangedEvent.forProgram(programId));
+        }
+        return toBatchResults(menteeIds, results);
+    }
+
     /**
      * Update a assigned {@link Mentor} of a {@link Mentee}
      *
@@ -113,15 +281,27 @@ public class MenteeService {
      * @throws ResourceNotFoundException is thrown if the {@link Mentor} doesn't exist
      * @throws BadRequestException       is thrown if the {@link Mentor} id is not given
      * @throws BadRequestException       is thrown if the {@link Program} is not in a valid state
+     * @throws BadRequestException       is thrown if the {@link Mentor} has no available slots
+     * @throws ConflictException         is thrown if the {@link Mentee} keeps being updated concurrently
      */
     public Mentee updateAssignedMentor(long menteeId, Long mentorId)
-            throws ResourceNotFoundException, BadRequestException {
+            throws ResourceNotFoundException, BadRequestException, ConflictException {
         if (null == mentorId) {
             String msg = "Error, Value cannot be null.";
             log.error(msg);
             throw new BadRequestException(msg);
         }
-        
+        try {
+            return updateWithRetry(menteeId, () -> applyUpdateAssignedMentor(menteeId, mentorId));
+        } catch (MenteeUpdateException exception) {
+            rethrowIf(exception.getCause(), ResourceNotFoundException.class);
+            rethrowIf(exception.getCause(), BadRequestException.class);
+            throw exception;
+        }
+    }
+
+    private Mentee applyUpdateAssignedMentor(long menteeId, long mentorId)
+            throws ResourceNotFoundException, BadRequestException {
         Optional<Mentee> optionalMentee = menteeRepository.findById(menteeId);
         if (!optionalMentee.isPresent()) {
             String msg = "Error, Mentee cannot be updated. " +
@@ -150,12 +330,136 @@ public class MenteeService {
 
         Mentor previouslyAssignedMentor = optionalMentee.get().getAssignedMentor();
         if (previouslyAssignedMentor != null) {
-            previouslyAssignedMentor.setNoOfAssignedMentees(previouslyAssignedMentor.getNoOfAssignedMentees() - 1);
+            mentorRepository.incrementMenteeCounts(previouslyAssignedMentor.getId(), 0, -1, 0);
         }
 
-        optionalMentor.get().setNoOfAssignedMentees(optionalMentor.get().getNoOfAssignedMentees() + 1);
+        if (ProgramState.WILDCARD.equals(programState)) {
+            if (mentorRepository.incrementAssignedMenteesIfSlotsAvailable(mentorId, 1) == 0) {
+                String msg = "Error, Mentee cannot be updated. " +
+                        "Mentor with id: " + mentorId + " has no available slots.";
+                log.error(msg);
+                throw new BadRequestException(msg);
+            }
+        } else {
+            mentorRepository.incrementMenteeCounts(mentorId, 0, 1, 0);
+        }
         optionalMentee.get().setAssignedMentor(optionalMentor.get());
-        return menteeRepository.save(optionalMentee.get());
+        Mentee savedMentee = menteeRepository.save(optionalMentee.get());
+        eventPublisher.publishEvent(MentorDirectoryChangedEvent.forProgram(optionalMentee.get().getProgram().getId()));
+        eventPublisher.publishEvent(EnrolmentChangedEvent.forProfile(optionalMentee.get().getProfile().getId()));
+        return savedMentee;
+    }
+
+    /**
+     * Updates the assigned {@link Mentor} of a batch of {@link Mentee} objects in a single
+     * transaction. The mentees are locked while the batch is validated and the valid
+     * assignments are applied with one set-based update per {@link Mentor}
+     *
+     * @param assignments which is the list of assignments to be applied
+     * @return {@link List} of {@link MenteeBatchResultDto} in the order of the assignments
+     *
+     * @throws BadRequestException is thrown if the batch is empty, too large or has repeated mentees
+     */
+    @Transactional
+    public List<MenteeBatchResultDto> updateAssignedMentors(List<MenteeAssignmentDto> assignments)
+            throws BadRequestException {
+        List<Long> menteeIds = new ArrayList<>();
+        Set<Long> mentorIds = new HashSet<>();
+        for (MenteeAssignmentDto assignment : assignments) {
+            menteeIds.add(assignment.getMenteeId());
+            if (assignment.getMentorId() != null) {
+                mentorIds.add(assignment.getMentorId());
+            }
+        }
+        validateBatch(menteeIds);
+
+        Map<Long, Mentee> mentees = findAllForUpdate(menteeIds);
+        Map<Long, Mentor> mentors = new HashMap<>();
+        for (Mentor mentor : mentorRepository.findAllById(mentorIds)) {
+            mentors.put(mentor.getId(), mentor);
+        }
+
+        Map<Long, MenteeBatchResultDto> results = new HashMap<>();
+        Map<Long, List<Mentee>> assignmentsByMentor = new LinkedHashMap<>();
+        for (MenteeAssignmentDto assignment : assignments) {
+            long menteeId = assignment.getMenteeId();
+            Mentee mentee = mentees.get(menteeId);
+            Mentor mentor = mentors.get(assignment.getMentorId());
+            if (null == assignment.getMentorId()) {
+                results.put(menteeId, failure(menteeId, HttpStatus.BAD_REQUEST,
+                        "Error, Value cannot be null."));
+            } else if (mentee == null) {
+                results.put(menteeId, failure(menteeId, HttpStatus.NOT_FOUND,
+                        "Error, Mentee with id: " + menteeId + " doesn't exist."));
+            } else if (mentor == null) {
+                results.put(menteeId, failure(menteeId, HttpStatus.NOT_FOUND,
+                        "Error, Mentor with id: " + assignment.getMentorId() + " doesn't exist."));
+            } else if (!ProgramState.ADMIN_MENTEE_FILTRATION.equals(mentee.getProgram().getState()) &&
+                       !ProgramState.WILDCARD.equals(mentee.getProgram().getState())) {
+                results.put(menteeId, failure(menteeId, HttpStatus.BAD_REQUEST,
+                        "Error, Mentee with id: " + menteeId + " cannot be updated. " +
+                        "Program is not in a valid state."));
+            } else if (mentor.getProgram().getId() != mentee.getProgram().getId()) {
+                results.put(menteeId, failure(menteeId, HttpStatus.BAD_REQUEST,
+                        "Error, Mentee with id: " + menteeId + " cannot be updated. " +
+                        "Mentor with id: " + mentor.getId() + " is not a mentor of the program."));
+            } else if (EnrolmentState.ASSIGNED.equals(mentee.getState()) && mentee.getAssignedMentor() != null &&
+                       mentee.getAssignedMentor().getId() == mentor.getId()) {
+                results.put(menteeId, success(menteeId));
+            } else {
+                assignmentsByMentor.computeIfAbsent(mentor.getId(), id -> new ArrayList<>()).add(mentee);
+            }
+        }
+
+        // Slots freed by mentees moving to another mentor are released before the new slots
+        // are taken, so mentees can be swapped between mentors which are full
+        Set<Long> acceptedMentorIds = findAssignableMentorIds(assignmentsByMentor, mentors);
+        Map<Long, Integer> releasedCountsByMentor = new HashMap<>();
+        for (Long mentorId : acceptedMentorIds) {
+            for (Mentee mentee : assignmentsByMentor.get(mentorId)) {
+                if (mentee.getAssignedMentor() != null) {
+                    releasedCountsByMentor.merge(mentee.getAssignedMentor().getId(), 1, Integer::sum);
+                }
+            }
+        }
+        for (Map.Entry<Long, Integer> entry : releasedCountsByMentor.entrySet()) {
+            mentorRepository.incrementMenteeCounts(entry.getKey(), 0, -entry.getValue(), 0);
+        }
+
+        Set<Long> programIds = new HashSet<>();
+        for (Map.Entry<Long, List<Mentee>> entry : assignmentsByMentor.entrySet()) {
+            Mentor mentor = mentors.get(entry.getKey());
+            int count = entry.getValue().size();
+            if (ProgramState.WILDCARD.equals(mentor.getProgram().getState())) {
+                if (!acceptedMentorIds.contains(mentor.getId()) ||
+                    mentorRepository.incrementAssignedMenteesIfSlotsAvailable(mentor.getId(), count) == 0) {
+                    for (Mentee mentee : entry.getValue()) {
+                        results.put(mentee.getId(), failure(mentee.getId(), HttpStatus.BAD_REQUEST,
+                                "Error, Mentor with id: " + mentor.getId() + " doesn't have " +
+                                count + " available slots."));
+                        if (acceptedMentorIds.contains(mentor.getId()) && mentee.getAssignedMentor() != null) {
+                            mentorRepository.incrementMenteeCounts(mentee.getAssignedMentor().getId(), 0, 1, 0);
+                        }
+                    }
+                    continue;
+                }
+            } else {
+                mentorRepository.incrementMenteeCounts(mentor.getId(), 0, count, 0);
+            }
+
+            List<Long> assignedMenteeIds = new ArrayList<>();
+            for (Mentee mentee : entry.getValue()) {
+                assignedMenteeIds.add(mentee.getId());
+                results.put(mentee.getId(), success(mentee.getId()));
+                eventPublisher.publishEvent(EnrolmentChangedEvent.forProfile(mentee.getProfile().getId()));
+            }
+            menteeRepository.assignAllByIdIn(assignedMenteeIds, mentor.getId());
+            programIds.add(mentor.getProgram().getId());
+        }
+        for (Long programId : programIds) {
+            eventPublisher.publishEvent(MentorDirectoryChangedEvent.forProgram(programId));
+        }
+        return toBatchResults(menteeIds, results);
     }
 
     public Mentee changeState(long menteeId, EnrolmentState enrolmentState)
@@ -185,12 +489,166 @@ public class MenteeService {
 
         if(optionalMentee.get().getState().equals(EnrolmentState.ASSIGNED)){
             Mentor assignedMentor = optionalMentee.get().getAssignedMentor();
-            assignedMentor.setNoOfAssignedMentees(assignedMentor.getNoOfAssignedMentees() - 1);
+            mentorRepository.incrementMenteeCounts(assignedMentor.getId(), 0, -1, 0);
             optionalMentee.get().setAssignedMentor(null);
-            mentorRepository.save(assignedMentor);
+            eventPublisher.publishEvent(MentorDirectoryChangedEvent.forProgram(optionalMentee.get().getProgram().getId()));
         }
     
         optionalMentee.get().setState(enrolmentState);
-        return menteeRepository.save(optionalMentee.get());
+        Mentee savedMentee = menteeRepository.save(optionalMentee.get());
+        eventPublisher.publishEvent(EnrolmentChangedEvent.forProfile(optionalMentee.get().getProfile().getId()));
+        return savedMentee;
+    }
+
+    /**
+     * Finds the mentors which can take all the mentees assigned to them in a batch, counting
+     * the slots released by their own mentees which move to another accepted mentor. A
+     * mentor of a {@link ProgramState#WILDCARD} program which can't take its mentees is left
+     * out, which keeps its mentees and their slots with their current mentors, so the check
+     * is repeated until no more mentors are left out
+     *
+     * @param assignmentsByMentor which is the map of mentees to be assigned by mentor id
+     * @param mentors             which is the map of mentors by id
+     * @return {@link Set} of ids of the mentors whose assignments can be applied
+     */
+    private Set<Long> findAssignableMentorIds(Map<Long, List<Mentee>> assignmentsByMentor,
+                                              Map<Long, Mentor> mentors) {
+        Set<Long> acceptedMentorIds = new HashSet<>(assignmentsByMentor.keySet());
+        Map<Long, MentorMenteeCounts> countsByMentor = new HashMap<>();
+        Set<Long> programIds = new HashSet<>();
+        for (Long mentorId : acceptedMentorIds) {
+            Program program = mentors.get(mentorId).getProgram();
+            if (ProgramState.WILDCARD.equals(program.getState()) && programIds.add(program.getId())) {
+                for (MentorMenteeCounts counts : mentorRepository.findAllMenteeCountsByProgramId(program.getId())) {
+                    countsByMentor.put(counts.getMentorId(), counts);
+                }
+            }
+        }
+        if (countsByMentor.isEmpty()) {
+            return acceptedMentorIds;
+        }
+
+        boolean isChanged = true;
+        while (isChanged) {
+            isChanged = false;
+            Map<Long, Integer> releasedCountsByMentor = new HashMap<>();
+            for (Long mentorId : acceptedMentorIds) {
+                for (Mentee mentee : assignmentsByMentor.get(mentorId)) {
+                    if (mentee.getAssignedMentor() != null) {
+                        releasedCountsByMentor.merge(mentee.getAssignedMentor().getId(), 1, Integer::sum);
+                    }
+                }
+            }
+            for (Long mentorId : new ArrayList<>(acceptedMentorIds)) {
+                MentorMenteeCounts counts = countsByMentor.get(mentorId);
+                if (counts == null) {
+                    continue;
+                }
+                int freeSlots = counts.getSlots() - counts.getNoOfAssignedMentees() +
+                                releasedCountsByMentor.getOrDefault(mentorId, 0);
+                if (assignmentsByMentor.get(mentorId).size() > freeSlots) {
+                    acceptedMentorIds.remove(mentorId);
+                    isChanged = true;
+                }
+            }
+        }
+        return acceptedMentorIds;
+    }
+
+    private void validateBatch(List<Long> menteeIds) throws BadRequestException {
+        if (menteeIds.isEmpty() || menteeIds.size() > MAX_BATCH_SIZE) {
+            String msg = "Error, Batch must contain between 1 and " + MAX_BATCH_SIZE + " mentees.";
+            log.error(msg);
+            throw new BadRequestException(msg);
+        }
+        if (menteeIds.contains(null)) {
+            String msg = "Error, Mentee id cannot be null.";
+            log.error(msg);
+            throw new BadRequestException(msg);
+        }
+        if (new HashSet<>(menteeIds).size() != menteeIds.size()) {
+            String msg = "Error, Batch cannot contain a mentee more than once.";
+            log.error(msg);
+            throw new BadRequestException(msg);
+        }
+    }
+
+    private Map<Long, Mentee> findAllForUpdate(List<Long> menteeIds) {
+        Map<Long, Mentee> mentees = new HashMap<>();
+        for (Mentee mentee : menteeRepository.findAllForUpdateByIdIn(menteeIds)) {
+            mentees.put(mentee.getId(), mentee);
+        }
+        return mentees;
+    }
+
+    private static MenteeBatchResultDto success(long menteeId) {
+        return new MenteeBatchResultDto(menteeId, HttpStatus.OK.value(), null);
+    }
+
+    private static MenteeBatchResultDto failure(long menteeId, HttpStatus status, String msg) {
+        log.error(msg);
+        return new MenteeBatchResultDto(menteeId, status.value(), msg);
+    }
+
+    private static List<MenteeBatchResultDto> toBatchResults(List<Long> menteeIds,
+                                                            Map<Long, MenteeBatchResultDto> results) {
+        List<MenteeBatchResultDto> batchResults = new ArrayList<>();
+        for (Long menteeId : menteeIds) {
+            batchResults.add(results.get(menteeId));
+        }
+        return batchResults;
+    }
+
+    /**
+     * Runs an update of a {@link Mentee} in a transaction of its own. The update is retried
+     * from scratch when it loses a race with a concurrent update, so the validations are
+     * always made against the latest state
+     *
+     * @param menteeId which is the {@link Mentee} to be updated
+     * @param update   which loads, validates and updates the {@link Mentee}
+     * @return the updated {@link Mentee}
+     *
+     * @throws ConflictException is thrown if the update keeps conflicting after all the attempts
+     */
+    private Mentee updateWithRetry(long menteeId, MenteeUpdate update) throws ConflictException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    try {
+                        return update.apply();
+                    } catch (APIException exception) {
+                        throw new MenteeUpdateException(exception);
+                    }
+                });
+            } catch (ConcurrencyFailureException exception) {
+                if (attempt >= MAX_UPDATE_ATTEMPTS) {
+                    String msg = "Error, Mentee with id: " + menteeId + " cannot be updated. " +
+                                 "Mentee was updated concurrently, please try again.";
+                    log.error(msg, exception);
+                    throw new ConflictException(msg, exception);
+                }
+                log.warn("Retrying the update of mentee with id: " + menteeId + " after a concurrent update");
+            }
+        }
+    }
+
+    private static <E extends APIException> void rethrowIf(Throwable cause, Class<E> type) throws E {
+        if (type.isInstance(cause)) {
+            throw type.cast(cause);
+        }
+    }
+
+    private interface MenteeUpdate {
+        Mentee apply() throws APIException;
+    }
+
+    /**
+     * Carries the checked exceptions of a {@link MenteeUpdate} out of the transaction, which
+     * also marks the transaction for rollback
+     */
+    private static class MenteeUpdateException extends RuntimeException {
+        MenteeUpdateException(APIException cause) {
+            super(cause);
+        }
     }
 }
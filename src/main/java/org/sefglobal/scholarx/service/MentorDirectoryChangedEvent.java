@@ -0,0 +1,29 @@
+package org.sefglobal.scholarx.service;
+
+/**
+ * Published when data shown in the public mentor directory changes. The cached directory
+ * is dropped once the publishing transaction commits
+ */
+public class MentorDirectoryChangedEvent {
+
+    private final Long programId;
+
+    private MentorDirectoryChangedEvent(Long programId) {
+        this.programId = programId;
+    }
+
+    public static MentorDirectoryChangedEvent forProgram(long programId) {
+        return new MentorDirectoryChangedEvent(programId);
+    }
+
+    public static MentorDirectoryChangedEvent forAllPrograms() {
+        return new MentorDirectoryChangedEvent(null);
+    }
+
+    /**
+     * @return the id of the changed program, {@code null} if every program is affected
+     */
+    public Long getProgramId() {
+        return programId;
+    }
+}
@@ -0,0 +1,159 @@
+package org.sefglobal.scholarx.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.sefglobal.scholarx.exception.ResourceNotFoundException;
+import org.sefglobal.scholarx.model.Mentor;
+import org.sefglobal.scholarx.model.Program;
+import org.sefglobal.scholarx.util.EnrolmentState;
+import org.sefglobal.scholarx.util.Views;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the public mentor directory of each {@link Program} serialized with the
+ * {@link Views.Public} view. A snapshot is rebuilt only after a
+ * {@link MentorDirectoryChangedEvent} for its program, or once it is older than
+ * {@code scholarx.mentor-directory.max-age} milliseconds. The snapshots live in the memory
+ * of the instance and the events are local, which holds as the service is deployed as a
+ * single instance. Running more instances needs a shared invalidation channel, or a change
+ * made on one instance shows on the others only after the max age
+ */
+@Service
+public class MentorDirectoryService {
+
+    private final static Logger log = LoggerFactory.getLogger(MentorDirectoryService.class);
+    private final ProgramService programService;
+    private final ObjectWriter objectWriter;
+    private final long maxAge;
+    private final Map<Long, Map<String, Snapshot>> snapshots = new ConcurrentHashMap<>();
+
+    public MentorDirectoryService(ProgramService programService,
+                                  ObjectMapper objectMapper,
+                                  @Value("${scholarx.mentor-directory.max-age:600000}") long maxAge) {
+        this.programService = programService;
+        this.objectWriter = objectMapper.writerWithView(Views.Public.class);
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Retrieves the serialized {@link Mentor} objects of a {@link Program}
+     *
+     * @param id     which is the Program id of the filtering {@link Mentor} objects
+     * @param states which is the list of states that {@link Mentor} objects should be filtered from
+     * @return the {@link Snapshot} of the mentor directory
+     *
+     * @throws ResourceNotFoundException if the requesting {@link Program} doesn't exist
+     */
+    public Snapshot getSnapshot(long id, List<EnrolmentState> states) throws ResourceNotFoundException {
+        // The map is taken before reading, so a change committed while the snapshot is built
+        // drops this map and the stale snapshot is never served
+        Map<String, Snapshot> programSnapshots = snapshots.computeIfAbsent(id, programId -> new ConcurrentHashMap<>());
+        String key = toKey(states);
+        Snapshot snapshot = programSnapshots.get(key);
+        if (snapshot != null && System.currentTimeMillis() - snapshot.getCreatedAt() < maxAge) {
+            return snapshot;
+        }
+
+        List<Mentor> mentors;
+        try {
+            mentors = programService.getAllMentorsByProgramId(id, states);
+        } catch (ResourceNotFoundException exception) {
+            snapshots.remove(id, programSnapshots);
+            throw exception;
+        }
+        try {
+            snapshot = new Snapshot(objectWriter.writeValueAsBytes(mentors));
+        } catch (JsonProcessingException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        programSnapshots.put(key, snapshot);
+        return snapshot;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMentorDirectoryChanged(MentorDirectoryChangedEvent event) {
+        if (event.getProgramId() == null) {
+            snapshots.clear();
+        } else {
+            snapshots.remove(event.getProgramId());
+        }
+        log.debug("Mentor directory of program " + event.getProgramId() + " invalidated");
+    }
+
+    private static String toKey(List<EnrolmentState> states) {
+        if (states == null || states.isEmpty()) {
+            return "";
+        }
+        TreeSet<String> names = new TreeSet<>();
+        for (EnrolmentState state : states) {
+            names.add(state.name());
+        }
+        return String.join(",", names);
+    }
+
+    /**
+     * Serialized mentor directory with its gzip encoded variant. Each variant has its own
+     * strong ETag
+     */
+    public static class Snapshot {
+        private final byte[] body;
+        private final byte[] gzipBody;
+        private final String etag;
+        private final String gzipEtag;
+        private final long createdAt;
+
+        public Snapshot(byte[] body) {
+            this.body = body;
+            this.gzipBody = gzip(body);
+            String hash = DigestUtils.md5DigestAsHex(body);
+            this.etag = "\"" + hash + "\"";
+            this.gzipEtag = "\"" + hash + "-gzip\"";
+            this.createdAt = System.currentTimeMillis();
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public byte[] getGzipBody() {
+            return gzipBody;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getGzipEtag() {
+            return gzipEtag;
+        }
+
+        public long getCreatedAt() {
+            return createdAt;
+        }
+
+        private static byte[] gzip(byte[] body) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(body.length / 4 + 64);
+            try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+                gzipOutputStream.write(body);
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+            return outputStream.toByteArray();
+        }
+    }
+}
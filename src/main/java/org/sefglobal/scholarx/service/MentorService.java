@@ -12,11 +12,14 @@ import org.sefglobal.scholarx.repository.MenteeRepository;
 import org.sefglobal.scholarx.repository.MentorRepository;
 import org.sefglobal.scholarx.repository.ProfileRepository;
 import org.sefglobal.scholarx.util.EnrolmentState;
+import org.sefglobal.scholarx.util.KeysetCursor;
+import org.sefglobal.scholarx.util.KeysetPage;
 import org.sefglobal.scholarx.util.ProgramState;
 import org.sefglobal.scholarx.util.ProgramUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -29,17 +32,20 @@ public class MentorService {
     private final MentorRepository mentorRepository;
     private final MenteeRepository menteeRepository;
     private final ProfileRepository profileRepository;
+    private final ProgramUtil programUtil;
+    private final ApplicationEventPublisher eventPublisher;
     private final List<EnrolmentState> validMentorStates = ImmutableList.of(EnrolmentState.APPROVED, EnrolmentState.REJECTED, EnrolmentState.REMOVED);
 
-    @Autowired
-    private ProgramUtil programUtil;
-
     public MentorService(MentorRepository mentorRepository,
                          MenteeRepository menteeRepository,
-                         ProfileRepository profileRepository) {
+                         ProfileRepository profileRepository,
+                         ProgramUtil programUtil,
+                         ApplicationEventPublisher eventPublisher) {
         this.mentorRepository = mentorRepository;
         this.menteeRepository = menteeRepository;
         this.profileRepository = profileRepository;
+        this.programUtil = programUtil;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -51,6 +57,30 @@ public class MentorService {
         return mentorRepository.findAll();
     }
 
+    /**
+     * Retrieves a page of {@link Mentor} objects ordered by creation time
+     *
+     * @param cursor which is the cursor returned with the previous page, {@code null} for the first page
+     * @param limit  which is the maximum number of {@link Mentor} objects to be returned
+     * @return {@link KeysetPage} of {@link Mentor} objects
+     *
+     * @throws BadRequestException if the cursor or the limit is invalid
+     */
+    public KeysetPage<Mentor> getMentorsPage(String cursor, int limit) throws BadRequestException {
+        if (limit < 1 || limit > KeysetPage.MAX_LIMIT) {
+            String msg = "Error, Limit must be between 1 and " + KeysetPage.MAX_LIMIT + ".";
+            log.error(msg);
+            throw new BadRequestException(msg);
+        }
+        PageRequest pageRequest = PageRequest.of(0, limit + 1);
+        if (cursor == null) {
+            return KeysetPage.of(mentorRepository.findPage(pageRequest), limit);
+        }
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        return KeysetPage.of(mentorRepository.findPageAfter(position.getCreatedAt(), position.getId(), pageRequest),
+                limit);
+    }
+
     /**
      * Retrieves the {@link Mentor} filtered from {@code id}
      *
@@ -95,7 +125,10 @@ public class MentorService {
             throw new ResourceNotFoundException(msg);
         }
         optionalMentor.get().setState(enrolmentState);
-        return mentorRepository.save(optionalMentor.get());
+        Mentor savedMentor = mentorRepository.save(optionalMentor.get());
+        eventPublisher.publishEvent(MentorDirectoryChangedEvent.forProgram(savedMentor.getProgram().getId()));
+        eventPublisher.publishEvent(EnrolmentChangedEvent.forProfile(savedMentor.getProfile().getId()));
+        return savedMentor;
     }
 
     /**
@@ -174,15 +207,10 @@ public class MentorService {
         mentee.setAchievements(mentee.getAchievements());
         mentee.setState(EnrolmentState.PENDING);
         Mentee savedMenteeEntity = menteeRepository.save(mentee);
+        mentorRepository.incrementMenteeCounts(mentorId, 1, 0, 0);
 
-        Thread thread = new Thread(() -> {
-            try {
-                programUtil.sendConfirmationEmails(profileId, Optional.of(program));
-            } catch (Exception exception) {
-                log.error("Email service error: ", exception);
-            }
-        });
-        thread.start();
+        programUtil.sendConfirmationEmails(profileId, Optional.of(program));
+        eventPublisher.publishEvent(EnrolmentChangedEvent.forProfile(profileId));
 
         return savedMenteeEntity;
     }
@@ -5,8 +5,10 @@ import org.sefglobal.scholarx.exception.UserAlreadyExistsAuthenticationException
 import org.sefglobal.scholarx.exception.ResourceNotFoundException;
 import org.sefglobal.scholarx.model.Profile;
 import org.sefglobal.scholarx.oauth.GoogleAuthUserInfo;
+import org.sefglobal.scholarx.repository.MentorRepository;
 import org.sefglobal.scholarx.repository.ProfileRepository;
 import org.sefglobal.scholarx.util.ProfileType;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.slf4j.Logger;
@@ -15,15 +17,22 @@ import org.slf4j.LoggerFactory;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
 public class ProfileService {
     private final static Logger log = LoggerFactory.getLogger(ProfileService.class);
     private final ProfileRepository profileRepository;
+    private final MentorRepository mentorRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ProfileService(ProfileRepository profileRepository) {
+    public ProfileService(ProfileRepository profileRepository,
+                          MentorRepository mentorRepository,
+                          ApplicationEventPublisher eventPublisher) {
         this.profileRepository = profileRepository;
+        this.mentorRepository = mentorRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public Profile processUserRegistration(Map<String, Object> attributes)
@@ -37,10 +46,23 @@ public class ProfileService {
         Optional<Profile> profile = profileRepository.findByUid(googleAuthUserInfo.getId());
         if (profile.isPresent()) {
             String[] names = googleAuthUserInfo.getName().split(" ",2);
-            profile.get().setFirstName(names[0]);
-            profile.get().setLastName(names.length > 1 ? names[1] : "");
-            profile.get().setImageUrl(googleAuthUserInfo.getImageUrl());
-            return profileRepository.save(profile.get());
+            String firstName = names[0];
+            String lastName = names.length > 1 ? names[1] : "";
+            String imageUrl = googleAuthUserInfo.getImageUrl();
+            if (Objects.equals(firstName, profile.get().getFirstName()) &&
+                Objects.equals(lastName, profile.get().getLastName()) &&
+                Objects.equals(imageUrl, profile.get().getImageUrl())) {
+                return profile.get();
+            }
+            profile.get().setFirstName(firstName);
+            profile.get().setLastName(lastName);
+            profile.get().setImageUrl(imageUrl);
+            Profile savedProfile = profileRepository.save(profile.get());
+            // The name and the picture are shown in the mentor directory
+            if (mentorRepository.existsByProfileId(savedProfile.getId())) {
+                eventPublisher.publishEvent(MentorDirectoryChangedEvent.forAllPrograms());
+            }
+            return savedProfile;
         } else {
             return createProfile(googleAuthUserInfo);
         }
@@ -97,6 +119,8 @@ public class ProfileService {
         optionalUser.get().setEmail(profile.getEmail());
         optionalUser.get().setLinkedinUrl(profile.getLinkedinUrl());
         optionalUser.get().setHasConfirmedUserDetails(true);
-        return profileRepository.save(optionalUser.get());
+        Profile savedProfile = profileRepository.save(optionalUser.get());
+        eventPublisher.publishEvent(MentorDirectoryChangedEvent.forAllPrograms());
+        return savedProfile;
     }
 }
@@ -0,0 +1,24 @@
+package org.sefglobal.scholarx.service;
+
+/**
+ * Published when a program changes as a whole, which is an edit of its details, a state
+ * transition, its removal or a matching of its mentees. Unlike an
+ * {@link EnrolmentChangedEvent} it may affect every user enrolled in the program, so the
+ * cached programs of all users are dropped once the publishing transaction commits
+ */
+public class ProgramChangedEvent {
+
+    private final long programId;
+
+    private ProgramChangedEvent(long programId) {
+        this.programId = programId;
+    }
+
+    public static ProgramChangedEvent forProgram(long programId) {
+        return new ProgramChangedEvent(programId);
+    }
+
+    public long getProgramId() {
+        return programId;
+    }
+}
@@ -1,46 +1,60 @@
 package org.sefglobal.scholarx.service;
 
-import com.google.common.collect.ImmutableList;
 import org.sefglobal.scholarx.exception.BadRequestException;
 import org.sefglobal.scholarx.exception.NoContentException;
 import org.sefglobal.scholarx.exception.ResourceNotFoundException;
 import org.sefglobal.scholarx.model.*;
 import org.sefglobal.scholarx.repository.*;
 import org.sefglobal.scholarx.util.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 public class ProgramService {
     private final static Logger log = LoggerFactory.getLogger(ProgramService.class);
+    private final static int BULK_EMAIL_CHUNK_SIZE = 500;
     private final ProgramRepository programRepository;
     private final ProfileRepository profileRepository;
     private final MentorRepository mentorRepository;
     private final MenteeRepository menteeRepository;
-
-    @Autowired
-    private ProgramUtil programUtil;
-
-    @Autowired
-    private EmailService emailService;
+    private final ProgramUtil programUtil;
+    private final EmailService emailService;
+    private final RecipientRepository recipientRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
 
     public ProgramService(ProgramRepository programRepository,
                           ProfileRepository profileRepository,
                           MentorRepository mentorRepository,
-                          MenteeRepository menteeRepository) {
+                          MenteeRepository menteeRepository,
+                          ProgramUtil programUtil,
+                          EmailService emailService,
+                          RecipientRepository recipientRepository,
+                          ApplicationEventPublisher eventPublisher,
+                          MeterRegistry meterRegistry) {
         this.programRepository = programRepository;
         this.profileRepository = profileRepository;
         this.mentorRepository = mentorRepository;
         this.menteeRepository = menteeRepository;
+        this.programUtil = programUtil;
+        this.emailService = emailService;
+        this.recipientRepository = recipientRepository;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
@@ -112,17 +126,23 @@ public class ProgramService {
         updatedProgram.setHeadline(program.getHeadline());
         updatedProgram.setImageUrl(program.getImageUrl());
         updatedProgram.setLandingPageUrl(program.getLandingPageUrl());
-        return programRepository.save(updatedProgram);
+        Program savedProgram = programRepository.save(updatedProgram);
+        eventPublisher.publishEvent(MentorDirectoryChangedEvent.forProgram(id));
+        eventPublisher.publishEvent(ProgramChangedEvent.forProgram(id));
+        return savedProgram;
     }
 
     /**
-     * Update a {@link Program} by selecting the next {@link ProgramState}
+     * Update a {@link Program} by selecting the next {@link ProgramState}. The enrolment
+     * changes of the transition are applied with bulk updates and the notification emails
+     * are queued in the same transaction as the state change
      *
      * @param id which is the {@link Program} to be updated
      * @return the updated {@link Program}
      *
      * @throws ResourceNotFoundException is thrown if the requesting {@link Program} doesn't exist
      */
+    @Transactional
     public Program updateState(long id) throws ResourceNotFoundException {
         Optional<Program> program = programRepository.findById(id);
         if (!program.isPresent()) {
@@ -132,70 +152,53 @@ public class ProgramService {
             throw new ResourceNotFoundException(msg);
         }
 
-        final ProgramState nextState = program.get().getState().next();
+        final ProgramState currentState = program.get().getState();
+        final ProgramState nextState = currentState.next();
+        Timer.Sample sample = Timer.start(meterRegistry);
 
         switch (nextState) {
             case MENTEE_APPLICATION:
-                List<Mentor> mentors = mentorRepository.findAllByProgramIdAndState(id, EnrolmentState.PENDING);
-                for (Mentor mentor : mentors) {
-                    mentor.setState(EnrolmentState.REJECTED);
-                }
+                mentorRepository.rejectAllPendingByProgramId(id);
                 break;
 
             case MENTEE_SELECTION:
-                List<Mentor> mentorList = mentorRepository.findAllByProgramId(id);
-                for (Mentor mentor : mentorList) {
-                    mentor.setNoOfAssignedMentees(0);
-                }
+                mentorRepository.resetNoOfAssignedMenteesByProgramId(id);
                 break;
 
             case WILDCARD:
-                List<Mentee> mentees = menteeRepository.findAllByProgramIdAndStateIn(
-                        id, ImmutableList.of(EnrolmentState.ASSIGNED, EnrolmentState.REJECTED));
-                for (Mentee mentee : mentees) {
-                    mentee.setState(EnrolmentState.REJECTED);
-                    mentee.setRejectedBy(mentee.getAssignedMentor());
-                    mentee.setAssignedMentor(null);
-                }
+                menteeRepository.rejectAllAssignedByProgramId(id);
+                mentorRepository.recountMenteesByProgramId(id);
                 break;
 
             case ONGOING:
-                List<Mentee> approvedMentees = menteeRepository.findAllByProgramIdAndState(id, EnrolmentState.ASSIGNED);
-                for (Mentee mentee : approvedMentees) {
-                    mentee.setState(EnrolmentState.APPROVED);
-                }
-                List<Mentee> ignoredMentees = menteeRepository.
-                        findAllByProgramIdAndStateIn(id, ImmutableList.of(EnrolmentState.POOL, EnrolmentState.PENDING, EnrolmentState.REJECTED));
-                for (Mentee mentee : ignoredMentees) {
-                    mentee.setState(EnrolmentState.FAILED_FROM_WILDCARD);
-                }
+                menteeRepository.approveAllAssignedByProgramId(id);
+                menteeRepository.failAllUnassignedByProgramId(id);
                 break;
         }
 
-        Thread thread = new Thread(() -> {
-            try {
-                switch (nextState) {
-                    case MENTEE_APPLICATION:
-                        programUtil.sendMenteeApplicationEmails(id, program);
-                        break;
-                    case ADMIN_MENTEE_FILTRATION:
-                        programUtil.sendMenteeFiltrationEmails(id, program);
-                        break;
-                    case MENTEE_SELECTION:
-                        programUtil.sendMenteeSelectionEmails(id, program);
-                        break;
-                    case ONGOING:
-                        programUtil.sendOnGoingEmails(id, program);
-                        break;
-                }
-            } catch (Exception exception) {
-                log.error("Email service error: ", exception);
-            }
-        });
-        thread.start();
-
         program.get().setState(nextState);
-        return programRepository.save(program.get());
+        Program savedProgram = programRepository.save(program.get());
+        eventPublisher.publishEvent(MentorDirectoryChangedEvent.forProgram(id));
+        eventPublisher.publishEvent(ProgramChangedEvent.forProgram(id));
+
+        switch (nextState) {
+            case MENTEE_APPLICATION:
+                programUtil.sendMenteeApplicationEmails(id, program);
+                break;
+            case ADMIN_MENTEE_FILTRATION:
+                programUtil.sendMenteeFiltrationEmails(id, program);
+                break;
+            case MENTEE_SELECTION:
+                programUtil.sendMenteeSelectionEmails(id, program);
+                break;
+            case ONGOING:
+                programUtil.sendOnGoingEmails(id, program);
+                break;
+        }
+
+        sample.stop(meterRegistry.timer("scholarx.program.state.transition",
+                "from", currentState.name(), "to", nextState.name()));
+        return savedProgram;
     }
 
     /**
@@ -214,6 +217,8 @@ public class ProgramService {
         }
         menteeRepository.deleteByMentorProgramId(id);
         mentorRepository.deleteByProgramId(id);
+        eventPublisher.publishEvent(MentorDirectoryChangedEvent.forProgram(id));
+        eventPublisher.publishEvent(ProgramChangedEvent.forProgram(id));
         programRepository.deleteById(id);
     }
 
@@ -235,10 +240,29 @@ public class ProgramService {
             throw new ResourceNotFoundException(msg);
         }
         if (states == null || states.isEmpty()) {
-            return mentorRepository.findAllByProgramId(id);
+            return mentorRepository.findAllWithProfileByProgramId(id);
         } else {
-            return mentorRepository.findAllByProgramIdAndStateIn(id, states);
+            return mentorRepository.findAllWithProfileByProgramIdAndStateIn(id, states);
+        }
+    }
+
+    /**
+     * Retrieves the applied, assigned and rejected {@link Mentee} counts of every
+     * {@link Mentor} of a {@link Program} with a single query
+     *
+     * @param id which is the Program id of the {@link Mentor} objects
+     * @return {@link List} of {@link MentorMenteeCounts} ordered by {@link Mentor} id
+     *
+     * @throws ResourceNotFoundException if the requesting {@link Program} doesn't exist
+     */
+    public List<MentorMenteeCounts> getMentorMenteeCountsByProgramId(long id)
+            throws ResourceNotFoundException {
+        if (!programRepository.existsById(id)) {
+            String msg = "Error, Program by id: " + id + " doesn't exist";
+            log.error(msg);
+            throw new ResourceNotFoundException(msg);
         }
+        return mentorRepository.findAllMenteeCountsByProgramId(id);
     }
 
     /**
@@ -257,8 +281,104 @@ public class ProgramService {
             log.error(msg);
             throw new ResourceNotFoundException(msg);
         }
-        return menteeRepository.findAllByProgramId(id);
+        return menteeRepository.findAllWithDetailsByProgramId(id);
+
+    }
 
+    /**
+     * Searches the approved {@link Mentor} objects of a {@link Program} by expertise, category,
+     * position, institution and bio. Hits are ordered by relevance
+     *
+     * @param id    which is the Program id of the {@link Mentor} objects
+     * @param query which is the free text search query
+     * @param page  which is the zero based page number
+     * @param limit which is the maximum number of hits to be returned
+     * @return {@link List} of {@link MentorSearchHit} objects
+     *
+     * @throws ResourceNotFoundException if the requesting {@link Program} doesn't exist
+     * @throws BadRequestException       if the query, the page or the limit is invalid
+     */
+    public List<MentorSearchHit> searchMentorsByProgramId(long id, String query, int page, int limit)
+            throws ResourceNotFoundException, BadRequestException {
+        validatePageLimit(limit);
+        if (query == null || query.trim().isEmpty()) {
+            String msg = "Error, Search query cannot be empty.";
+            log.error(msg);
+            throw new BadRequestException(msg);
+        }
+        if (page < 0) {
+            String msg = "Error, Page cannot be negative.";
+            log.error(msg);
+            throw new BadRequestException(msg);
+        }
+        if (!programRepository.existsById(id)) {
+            String msg = "Error, Program by id: " + id + " doesn't exist";
+            log.error(msg);
+            throw new ResourceNotFoundException(msg);
+        }
+        return mentorRepository.searchApprovedByProgramId(id, query.trim(), limit, (long) page * limit);
+    }
+
+    /**
+     * Retrieves a page of {@link Mentor} objects of a {@link Program} ordered by creation time
+     *
+     * @param id     which is the Program id of the filtering {@link Mentor} objects
+     * @param states which is the list of states that {@link Mentor} objects should be filtered from
+     * @param cursor which is the cursor returned with the previous page, {@code null} for the first page
+     * @param limit  which is the maximum number of {@link Mentor} objects to be returned
+     * @return {@link KeysetPage} of {@link Mentor} objects
+     *
+     * @throws ResourceNotFoundException if the requesting {@link Program} to filter
+     *                                   {@link Mentor} objects doesn't exist
+     * @throws BadRequestException       if the cursor or the limit is invalid
+     */
+    public KeysetPage<Mentor> getMentorsPageByProgramId(long id, List<EnrolmentState> states, String cursor, int limit)
+            throws ResourceNotFoundException, BadRequestException {
+        validatePageLimit(limit);
+        if (!programRepository.existsById(id)) {
+            String msg = "Error, Program by id: " + id + " doesn't exist";
+            log.error(msg);
+            throw new ResourceNotFoundException(msg);
+        }
+        if (states == null || states.isEmpty()) {
+            states = Arrays.asList(EnrolmentState.values());
+        }
+        PageRequest pageRequest = PageRequest.of(0, limit + 1);
+        if (cursor == null) {
+            return KeysetPage.of(mentorRepository.findPageByProgramIdAndStateIn(id, states, pageRequest), limit);
+        }
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        return KeysetPage.of(mentorRepository.findPageByProgramIdAndStateInAfter(id, states,
+                position.getCreatedAt(), position.getId(), pageRequest), limit);
+    }
+
+    /**
+     * Retrieves a page of {@link Mentee} objects of a {@link Program} ordered by creation time
+     *
+     * @param id     which is the Program id of the filtering {@link Mentee} objects
+     * @param cursor which is the cursor returned with the previous page, {@code null} for the first page
+     * @param limit  which is the maximum number of {@link Mentee} objects to be returned
+     * @return {@link KeysetPage} of {@link Mentee} objects
+     *
+     * @throws ResourceNotFoundException if the requesting {@link Program} to filter
+     *                                   {@link Mentee} objects doesn't exist
+     * @throws BadRequestException       if the cursor or the limit is invalid
+     */
+    public KeysetPage<Mentee> getMenteesPageByProgramId(long id, String cursor, int limit)
+            throws ResourceNotFoundException, BadRequestException {
+        validatePageLimit(limit);
+        if (!programRepository.existsById(id)) {
+            String msg = "Error, Program by id: " + id + " doesn't exist";
+            log.error(msg);
+            throw new ResourceNotFoundException(msg);
+        }
+        PageRequest pageRequest = PageRequest.of(0, limit + 1);
+        if (cursor == null) {
+            return KeysetPage.of(menteeRepository.findPageByProgramId(id, pageRequest), limit);
+        }
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        return KeysetPage.of(menteeRepository.findPageByProgramIdAfter(id,
+                position.getCreatedAt(), position.getId(), pageRequest), limit);
     }
 
     /**
@@ -340,15 +460,10 @@ public class ProgramService {
 
         savedMentor.setState(EnrolmentState.PENDING);
         Mentor savedMentorEntity = mentorRepository.save(savedMentor);
+        eventPublisher.publishEvent(MentorDirectoryChangedEvent.forProgram(programId));
+        eventPublisher.publishEvent(EnrolmentChangedEvent.forProfile(profileId));
 
-        Thread thread = new Thread(() -> {
-            try {
-                programUtil.sendConfirmationEmails(profileId, optionalProgram);
-            } catch (Exception exception) {
-                log.error("Email service error: ", exception);
-            }
-        });
-        thread.start();
+        programUtil.sendConfirmationEmails(profileId, optionalProgram);
 
         return savedMentorEntity;
     }
@@ -421,8 +536,9 @@ public class ProgramService {
             editedMentor.setChangedMotivation(null);
         }
 
-
-        return mentorRepository.save(optionalMentor.get());
+        Mentor savedMentor = mentorRepository.save(optionalMentor.get());
+        eventPublisher.publishEvent(MentorDirectoryChangedEvent.forProgram(programId));
+        return savedMentor;
     }
 
     /**
@@ -540,6 +656,13 @@ public class ProgramService {
 
         Mentee existingMentee = optionalMentee.get();
         if (EnrolmentState.PENDING.equals(existingMentee.getState())) {
+            Mentor previouslyAppliedMentor = existingMentee.getAppliedMentor();
+            if (previouslyAppliedMentor == null) {
+                mentorRepository.incrementMenteeCounts(optionalMentor.get().getId(), 1, 0, 0);
+            } else if (previouslyAppliedMentor.getId() != optionalMentor.get().getId()) {
+                mentorRepository.incrementMenteeCounts(previouslyAppliedMentor.getId(), -1, 0, 0);
+                mentorRepository.incrementMenteeCounts(optionalMentor.get().getId(), 1, 0, 0);
+            }
             existingMentee.setAppliedMentor(optionalMentor.get());
             existingMentee.setIntent(mentee.getIntent());
             existingMentee.setUniversity(mentee.getUniversity());
@@ -585,23 +708,25 @@ public class ProgramService {
      */
     public List<String> getEmailsAddresses(long programId)
             throws ResourceNotFoundException {
-        Optional<Program> program = programRepository.findById(programId);
-        if (!program.isPresent()) {
+        if (!programRepository.existsById(programId)) {
             String msg = "Error, Program by id: " + programId + " doesn't exist.";
             log.error(msg);
             throw new ResourceNotFoundException(msg);
         }
-        List<EnrolledUser> enrolledUsers = program.get().getEnrolledUsers();
         List<String> emails = new ArrayList<String>();
 
-        for (EnrolledUser user : enrolledUsers) {
-            emails.add(user.getProfile().getEmail());
+        for (EmailRecipient recipient : mentorRepository.findAllRecipientsByProgramId(programId)) {
+            emails.add(recipient.getEmail());
+        }
+        for (EmailRecipient recipient : menteeRepository.findAllRecipientsByProgramId(programId)) {
+            emails.add(recipient.getEmail());
         }
         return emails;
     }
 
     /**
-     * Sends bulk emails to the recipients in {@link BulkEmailDto}
+     * Sends bulk emails to the recipients in {@link BulkEmailDto}. Recipients are streamed
+     * from a single query and queued in chunks as they are read
      *
      * @param programId    which is the id of the {@link Program}
      * @param bulkEmailDto which contains the recipients and the message
@@ -609,48 +734,42 @@ public class ProgramService {
      */
     public void sendBulkEmails(long programId, BulkEmailDto bulkEmailDto)
             throws ResourceNotFoundException {
-        Optional<Program> optionalProgram = programRepository.findById(programId);
-        if (!optionalProgram.isPresent()) {
+        if (!programRepository.existsById(programId)) {
             String msg = "Error, Program with id: " + programId + " doesn't exist.";
             log.error(msg);
             throw new ResourceNotFoundException(msg);
         }
-        Set<String> emails = new HashSet<>();
-        for (MailGroup mailGroup : bulkEmailDto.getMailGroups()) {
-            if (mailGroup.equals(MailGroup.ALL)) {
-                optionalProgram.get().getEnrolledUsers()
-                        .forEach(user -> emails.add(user.getProfile().getEmail()));
-            } else if (mailGroup.equals(MailGroup.ALL_MENTORS)) {
-                mentorRepository.findAllByProgramId(programId)
-                        .forEach(mentor -> emails.add(mentor.getProfile().getEmail()));
-            } else if (mailGroup.equals(MailGroup.ALL_MENTEES)) {
-                menteeRepository.findAllByProgramId(programId)
-                        .forEach(mentee -> emails.add(mentee.getProfile().getEmail()));
-            } else if (mailGroup.equals(MailGroup.APPROVED_MENTORS)) {
-                mentorRepository.findAllByProgramIdAndState(programId, EnrolmentState.APPROVED)
-                        .forEach(mentor -> emails.add(mentor.getProfile().getEmail()));
-            } else if (mailGroup.equals(MailGroup.REJECTED_MENTORS)) {
-                mentorRepository.findAllByProgramIdAndState(programId, EnrolmentState.REJECTED)
-                        .forEach(mentor -> emails.add(mentor.getProfile().getEmail()));
-            } else if (mailGroup.equals(MailGroup.APPROVED_MENTEES)) {
-                menteeRepository.findAllByProgramIdAndState(programId, EnrolmentState.APPROVED)
-                        .forEach(mentee -> emails.add(mentee.getProfile().getEmail()));
-            } else if (mailGroup.equals(MailGroup.DISCARDED_MENTEES)) {
-                menteeRepository.findAllByProgramIdAndStateIn(programId, ImmutableList.of(EnrolmentState.DISCARDED, EnrolmentState.FAILED_FROM_WILDCARD))
-                        .forEach(mentee -> emails.add(mentee.getProfile().getEmail()));
+        Set<String> additionalEmails = new HashSet<>();
+        if (bulkEmailDto.getAdditionalEmails() != null) {
+            additionalEmails.addAll(bulkEmailDto.getAdditionalEmails());
+        }
+        List<OutboxEmail> chunk = new ArrayList<>();
+        Consumer<String> enqueue = email -> {
+            chunk.add(EmailOutboxService.newEmail(email, bulkEmailDto.getSubject(), bulkEmailDto.getMessage(), true));
+            if (chunk.size() >= BULK_EMAIL_CHUNK_SIZE) {
+                emailService.sendEmailsInNewTransaction(new ArrayList<>(chunk));
+                chunk.clear();
             }
+        };
+
+        if (bulkEmailDto.getMailGroups() != null) {
+            recipientRepository.streamEmailsByProgramIdAndMailGroups(programId, bulkEmailDto.getMailGroups(),
+                    email -> {
+                        additionalEmails.remove(email);
+                        enqueue.accept(email);
+                    });
+        }
+        additionalEmails.forEach(enqueue);
+        if (!chunk.isEmpty()) {
+            emailService.sendEmailsInNewTransaction(chunk);
         }
+    }
 
-        emails.addAll(bulkEmailDto.getAdditionalEmails());
-        Thread thread = new Thread(() -> {
-            for (String email : emails) {
-                try {
-                    emailService.sendEmail(email, bulkEmailDto.getSubject(), bulkEmailDto.getMessage(), true);
-                } catch (IOException exception) {
-                    log.error("Email service error: ", exception);
-                }
-            }
-        });
-        thread.start();
+    private void validatePageLimit(int limit) throws BadRequestException {
+        if (limit < 1 || limit > KeysetPage.MAX_LIMIT) {
+            String msg = "Error, Limit must be between 1 and " + KeysetPage.MAX_LIMIT + ".";
+            log.error(msg);
+            throw new BadRequestException(msg);
+        }
     }
 }
@@ -0,0 +1,69 @@
+package org.sefglobal.scholarx.util;
+
+/**
+ * Versioned email templates keyed by the {@link ProgramState} which sends them and the
+ * outcome they notify. Template bodies live in {@code classpath:/email-templates/}
+ */
+public enum EmailTemplate {
+    MENTOR_APPROVED(ProgramState.MENTEE_APPLICATION, "mentor-approved", 1),
+    MENTOR_REJECTED(ProgramState.MENTEE_APPLICATION, "mentor-rejected", 1),
+    MENTEE_APPLICATION_RECEIVED(ProgramState.ADMIN_MENTEE_FILTRATION, "mentee-application-received", 1),
+    MENTOR_MATCHING_STARTED(ProgramState.MENTEE_SELECTION, "mentor-matching-started", 1),
+    MENTOR_MENTEES_FINALISED(ProgramState.ONGOING, "mentor-mentees-finalised", 1),
+    MENTEE_APPROVED(ProgramState.ONGOING, "mentee-approved", 1),
+    MENTEE_DISCARDED(ProgramState.ONGOING, "mentee-discarded", 1),
+    APPLICATION_CONFIRMATION(null, "application-confirmation", 1);
+
+    private final ProgramState state;
+    private final String outcome;
+    private final int version;
+
+    EmailTemplate(ProgramState state, String outcome, int version) {
+        this.state = state;
+        this.outcome = outcome;
+        this.version = version;
+    }
+
+    /**
+     * @return the {@link ProgramState} which sends the template, {@code null} if the
+     *         template is not bound to a state
+     */
+    public ProgramState getState() {
+        return state;
+    }
+
+    public String getOutcome() {
+        return outcome;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the identifier which is stored with sent emails, e.g. {@code ONGOING/mentee-approved.v1}
+     */
+    public String getId() {
+        return (state != null ? state.name() + "/" : "") + outcome + ".v" + version;
+    }
+
+    public String getPath() {
+        return "email-templates/" + outcome + ".v" + version + ".html";
+    }
+
+    /**
+     * Finds a template by the identifier returned from {@link #getId()}
+     *
+     * @param id which is the template identifier
+     * @return the matching {@link EmailTemplate}
+     * @throws IllegalArgumentException if no template has the given identifier
+     */
+    public static EmailTemplate fromId(String id) {
+        for (EmailTemplate template : values()) {
+            if (template.getId().equals(id)) {
+                return template;
+            }
+        }
+        throw new IllegalArgumentException("Error, Email template " + id + " doesn't exist.");
+    }
+}
@@ -0,0 +1,56 @@
+package org.sefglobal.scholarx.util;
+
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders the {@code scholarx} email template. The template is processed once for each
+ * value of {@code showButton} with a placeholder message, and every email is then rendered
+ * by merging its message between the cached parts of the template
+ */
+@Component
+public class EmailTemplateRenderer {
+
+    private static final String TEMPLATE_NAME = "scholarx";
+    private static final String MESSAGE_PLACEHOLDER = "__SCHOLARX_EMAIL_MESSAGE__";
+    private final SpringTemplateEngine templateEngine;
+    private final Map<Boolean, String[]> templateParts = new ConcurrentHashMap<>();
+
+    public EmailTemplateRenderer(SpringTemplateEngine templateEngine) {
+        this.templateEngine = templateEngine;
+    }
+
+    /**
+     * Renders the email body
+     *
+     * @param message    which is the html message of the email
+     * @param showButton whether the dashboard button should be rendered
+     * @return the rendered html
+     */
+    public String render(String message, boolean showButton) {
+        String[] parts = templateParts.computeIfAbsent(showButton, this::compile);
+        String body = message != null ? message : "";
+        return new StringBuilder(parts[0].length() + body.length() + parts[1].length())
+                .append(parts[0])
+                .append(body)
+                .append(parts[1])
+                .toString();
+    }
+
+    private String[] compile(boolean showButton) {
+        Context context = new Context();
+        context.setVariable("message", MESSAGE_PLACEHOLDER);
+        context.setVariable("showButton", showButton);
+
+        String html = templateEngine.process(TEMPLATE_NAME, context);
+        int index = html.indexOf(MESSAGE_PLACEHOLDER);
+        if (index < 0) {
+            throw new IllegalStateException("Error, Template " + TEMPLATE_NAME + " doesn't render the message.");
+        }
+        return new String[]{html.substring(0, index), html.substring(index + MESSAGE_PLACEHOLDER.length())};
+    }
+}
@@ -0,0 +1,173 @@
+package org.sefglobal.scholarx.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.sefglobal.scholarx.model.EmailBody;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads {@link EmailTemplate} bodies from the classpath and keeps them compiled in memory.
+ * Templates use {@code {{parameter}}} placeholders which are replaced with the HTML escaped
+ * parameter values when rendering, as the rendered message is inserted into the email
+ * layout unescaped.
+ * Compiled templates are also cached by the hash of their source, so stored
+ * {@link EmailBody} rows can be rendered without recompiling them for every email
+ */
+@Component
+public class EmailTemplateStore {
+
+    private static final String PARAMETER_START = "{{";
+    private static final String PARAMETER_END = "}}";
+    private final Map<EmailTemplate, CompiledTemplate> templates = new ConcurrentHashMap<>();
+    private final Map<String, CompiledTemplate> templatesByHash = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Renders a template
+     *
+     * @param template   which is the template to be rendered
+     * @param parameters which is the map of parameter values
+     * @return the rendered message
+     */
+    public String render(EmailTemplate template, Map<String, String> parameters) {
+        return templates.computeIfAbsent(template, this::load).render(parameters);
+    }
+
+    /**
+     * Returns the body a template is rendered from. The same instance is returned for every
+     * call, so it can be shared by all emails of a notification round
+     *
+     * @param template which is the template
+     * @return the {@link EmailBody} of the template
+     */
+    public EmailBody getBody(EmailTemplate template) {
+        return templates.computeIfAbsent(template, this::load).body;
+    }
+
+    /**
+     * Renders a stored email body
+     *
+     * @param body       which is the stored body
+     * @param parameters which is the json object created with {@link #toJson(Map)}
+     * @return the rendered message
+     */
+    public String render(EmailBody body, String parameters) {
+        return templatesByHash.computeIfAbsent(body.getHash(), hash -> compile(body.getContent()))
+                .render(fromJson(parameters));
+    }
+
+    /**
+     * Renders a template from the values stored with a sent email
+     *
+     * @param templateId which is the identifier returned from {@link EmailTemplate#getId()}
+     * @param parameters which is the json object created with {@link #toJson(Map)}
+     * @return the rendered message
+     */
+    public String render(String templateId, String parameters) {
+        return render(EmailTemplate.fromId(templateId), fromJson(parameters));
+    }
+
+    public String toJson(Map<String, String> parameters) {
+        try {
+            return objectMapper.writeValueAsString(parameters);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalArgumentException("Error, Unable to serialize email parameters.", exception);
+        }
+    }
+
+    public Map<String, String> fromJson(String parameters) {
+        try {
+            return objectMapper.readValue(parameters, new TypeReference<Map<String, String>>() {});
+        } catch (JsonProcessingException exception) {
+            throw new IllegalArgumentException("Error, Unable to read email parameters.", exception);
+        }
+    }
+
+    private CompiledTemplate load(EmailTemplate template) {
+        String source;
+        try (InputStream inputStream = new ClassPathResource(template.getPath()).getInputStream()) {
+            source = StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8).trim();
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Error, Unable to load email template " + template.getId(), exception);
+        }
+        return templatesByHash.computeIfAbsent(hash(source), hash -> compile(source));
+    }
+
+    private CompiledTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> parameters = new ArrayList<>();
+        int position = 0;
+        int start;
+        while ((start = source.indexOf(PARAMETER_START, position)) >= 0) {
+            int end = source.indexOf(PARAMETER_END, start);
+            if (end < 0) {
+                break;
+            }
+            literals.add(source.substring(position, start));
+            parameters.add(source.substring(start + PARAMETER_START.length(), end).trim());
+            position = end + PARAMETER_END.length();
+        }
+        literals.add(source.substring(position));
+        return new CompiledTemplate(new EmailBody(hash(source), source), literals, parameters);
+    }
+
+    private static String hash(String source) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                builder.append(String.format("%02x", b));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("Error, SHA-256 is not available.", exception);
+        }
+    }
+
+    /**
+     * Template split into literal text and the parameters between them. A template with
+     * n parameters has n + 1 literals
+     */
+    private static class CompiledTemplate {
+        private final EmailBody body;
+        private final String[] literals;
+        private final String[] parameters;
+        private final int literalLength;
+
+        CompiledTemplate(EmailBody body, List<String> literals, List<String> parameters) {
+            this.body = body;
+            this.literals = literals.toArray(new String[0]);
+            this.parameters = parameters.toArray(new String[0]);
+            int length = 0;
+            for (String literal : literals) {
+                length += literal.length();
+            }
+            this.literalLength = length;
+        }
+
+        String render(Map<String, String> values) {
+            StringBuilder builder = new StringBuilder(literalLength + 16 * parameters.length);
+            for (int i = 0; i < parameters.length; i++) {
+                builder.append(literals[i]);
+                String value = values.get(parameters[i]);
+                builder.append(value != null ? HtmlUtils.htmlEscape(value) : "");
+            }
+            return builder.append(literals[parameters.length]).toString();
+        }
+    }
+}
@@ -5,24 +5,22 @@ import org.sefglobal.scholarx.service.MailConnection;
 import org.simplejavamail.api.email.Email;
 import org.simplejavamail.email.EmailBuilder;
 import org.springframework.stereotype.Component;
-import org.thymeleaf.spring5.SpringTemplateEngine;
-import org.thymeleaf.context.Context;
 
 @Component
 public class EmailUtil {
 
-    private final SpringTemplateEngine templateEngine;
+    private final EmailTemplateRenderer emailTemplateRenderer;
+    private final MailConnection mailConnection;
 
-    public EmailUtil(SpringTemplateEngine templateEngine) {
-        this.templateEngine = templateEngine;
+    public EmailUtil(EmailTemplateRenderer emailTemplateRenderer, MailConnection mailConnection) {
+        this.emailTemplateRenderer = emailTemplateRenderer;
+        this.mailConnection = mailConnection;
     }
 
     public void sendEmail(Mail mail) {
 
-        Context context = new Context();
-        context.setVariables(mail.getProps());
-
-        String htmlText = templateEngine.process("scholarx", context);
+        Object showButton = mail.getProps().get("showButton");
+        String htmlText = emailTemplateRenderer.render(mail.getMessage(), Boolean.TRUE.equals(showButton));
 
          Email email = EmailBuilder.startingBlank()
                 .to(mail.getEmail())
@@ -30,6 +28,6 @@ public class EmailUtil {
                 .withHTMLText(htmlText)
                 .buildEmail();
 
-        MailConnection.getInstance().sendMail(email);
+        mailConnection.sendMail(email);
     }
 }
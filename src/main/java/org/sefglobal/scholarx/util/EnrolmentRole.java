@@ -0,0 +1,6 @@
+package org.sefglobal.scholarx.util;
+
+public enum EnrolmentRole {
+    MENTOR,
+    MENTEE
+}
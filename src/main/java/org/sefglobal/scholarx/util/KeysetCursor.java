@@ -0,0 +1,58 @@
+package org.sefglobal.scholarx.util;
+
+import org.sefglobal.scholarx.exception.BadRequestException;
+import org.sefglobal.scholarx.model.BaseScholarxModel;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Position in a list ordered by {@code (createdAt, id)}. The cursor is passed to clients as
+ * an opaque url safe token, and the next page starts right after the row it points to
+ */
+public class KeysetCursor {
+
+    private final Date createdAt;
+    private final long id;
+
+    public KeysetCursor(Date createdAt, long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static KeysetCursor of(BaseScholarxModel model) {
+        return new KeysetCursor(model.getCreatedAt(), model.getId());
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String encode() {
+        String value = createdAt.getTime() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads a cursor created with {@link #encode()}
+     *
+     * @param token which is the cursor token
+     * @return the decoded {@link KeysetCursor}
+     * @throws BadRequestException if the token is not a valid cursor
+     */
+    public static KeysetCursor decode(String token) throws BadRequestException {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(':');
+            return new KeysetCursor(new Date(Long.parseLong(value.substring(0, separator))),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException exception) {
+            throw new BadRequestException("Error, Invalid cursor: " + token, exception);
+        }
+    }
+}
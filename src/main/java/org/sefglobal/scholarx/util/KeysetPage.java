@@ -0,0 +1,64 @@
+package org.sefglobal.scholarx.util;
+
+import org.sefglobal.scholarx.model.BaseScholarxModel;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * A page of a list read with {@link KeysetCursor}s
+ *
+ * @param <T> the type of the items
+ */
+public class KeysetPage<T> {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int MAX_LIMIT = 200;
+    private final List<T> items;
+    private final String nextCursor;
+
+    public KeysetPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Creates a page from rows read with a limit of {@code limit + 1}. The extra row only
+     * tells whether another page exists and is not returned
+     *
+     * @param rows  which is the list of rows read from the database
+     * @param limit which is the requested page size
+     * @param <T>   the type of the rows
+     * @return the {@link KeysetPage}
+     */
+    public static <T extends BaseScholarxModel> KeysetPage<T> of(List<T> rows, int limit) {
+        if (rows.size() <= limit) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new KeysetPage<>(items, KeysetCursor.of(items.get(limit - 1)).encode());
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return the cursor of the next page, {@code null} if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * @return a response with the items as the body and the next cursor in the
+     *         {@value #NEXT_CURSOR_HEADER} header
+     */
+    public ResponseEntity<List<T>> toResponseEntity() {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (nextCursor != null) {
+            builder.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return builder.body(items);
+    }
+}
@@ -0,0 +1,196 @@
+package org.sefglobal.scholarx.util;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+/**
+ * Capacity constrained mentor-mentee matching on primitive arrays. Mentors and mentees are
+ * referred to by their index in the arrays given to the engine.
+ * <p>
+ * A pair is scored by whether the mentor is the one the mentee applied for, whether the
+ * mentor is in the same category as that mentor and by how much their expertise overlaps.
+ * Mentees propose to mentors in order of score and mentors keep the best scored proposals
+ * that fit in their capacity (deferred acceptance), which gives a stable matching. The
+ * preference lists are built in parallel, the proposals are made on a single thread.
+ */
+public class MatchingEngine {
+
+    public static final int NO_MENTOR = -1;
+    public static final int NO_CATEGORY = -1;
+    private static final int APPLIED_MENTOR_SCORE = 1 << 12;
+    private static final int CATEGORY_SCORE = 1 << 7;
+
+    private final int[] capacities;
+    private final int[] categories;
+    private final long[] expertise;
+
+    /**
+     * @param capacities which is the number of free slots of each mentor
+     * @param categories which is the {@link MentorCategory} ordinal of each mentor or {@link #NO_CATEGORY}
+     * @param expertise  which is the {@link #expertiseMask} of each mentor
+     */
+    public MatchingEngine(int[] capacities, int[] categories, long[] expertise) {
+        if (capacities.length != categories.length || capacities.length != expertise.length) {
+            throw new IllegalArgumentException("Mentor arrays must have the same length");
+        }
+        this.capacities = capacities;
+        this.categories = categories;
+        this.expertise = expertise;
+    }
+
+    /**
+     * Matches mentees to mentors. Mentees which come first win ties, so they should be given
+     * in the order of their applications
+     *
+     * @param appliedMentors  which is the index of the mentor each mentee applied for or {@link #NO_MENTOR}
+     * @param menteeCategories which is the category each mentee is interested in or {@link #NO_CATEGORY}
+     * @param menteeExpertise which is the {@link #expertiseMask} each mentee is interested in
+     * @param excludedMentors which is the index of a mentor each mentee must not be matched with
+     *                        or {@link #NO_MENTOR}
+     * @return the index of the matched mentor of each mentee or {@link #NO_MENTOR}
+     */
+    public int[] match(int[] appliedMentors, int[] menteeCategories, long[] menteeExpertise, int[] excludedMentors) {
+        int menteeCount = appliedMentors.length;
+        int[][] preferences = new int[menteeCount][];
+        IntStream.range(0, menteeCount).parallel().forEach(mentee -> preferences[mentee] = rankMentors(
+                appliedMentors[mentee], menteeCategories[mentee], menteeExpertise[mentee], excludedMentors[mentee]));
+
+        long[][] accepted = new long[capacities.length][];
+        int[] acceptedCounts = new int[capacities.length];
+        for (int mentor = 0; mentor < capacities.length; mentor++) {
+            accepted[mentor] = new long[Math.max(capacities[mentor], 0)];
+        }
+
+        int[] nextProposals = new int[menteeCount];
+        int[] freeMentees = new int[menteeCount];
+        int freeCount = 0;
+        for (int mentee = menteeCount - 1; mentee >= 0; mentee--) {
+            freeMentees[freeCount++] = mentee;
+        }
+        while (freeCount > 0) {
+            int mentee = freeMentees[--freeCount];
+            int[] ranking = preferences[mentee];
+            while (nextProposals[mentee] < ranking.length) {
+                int mentor = ranking[nextProposals[mentee]++];
+                long[] heap = accepted[mentor];
+                if (heap.length == 0) {
+                    continue;
+                }
+                long priority = (long) score(appliedMentors[mentee], menteeCategories[mentee],
+                        menteeExpertise[mentee], mentor) * menteeCount + (menteeCount - 1 - mentee);
+                if (acceptedCounts[mentor] < heap.length) {
+                    push(heap, acceptedCounts[mentor]++, priority);
+                    break;
+                }
+                if (heap[0] < priority) {
+                    long rejected = heap[0];
+                    replaceMin(heap, acceptedCounts[mentor], priority);
+                    freeMentees[freeCount++] = (int) (menteeCount - 1 - rejected % menteeCount);
+                    break;
+                }
+            }
+        }
+
+        int[] matches = new int[menteeCount];
+        Arrays.fill(matches, NO_MENTOR);
+        for (int mentor = 0; mentor < capacities.length; mentor++) {
+            for (int i = 0; i < acceptedCounts[mentor]; i++) {
+                matches[(int) (menteeCount - 1 - accepted[mentor][i] % menteeCount)] = mentor;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Reduces a free text list of expertise to a 64 bit set of hashed, lower cased words,
+     * so that the overlap of two lists is the bit count of their intersection
+     *
+     * @param expertise which is the free text list of expertise
+     * @return the expertise mask
+     */
+    public static long expertiseMask(String expertise) {
+        if (expertise == null) {
+            return 0L;
+        }
+        long mask = 0L;
+        for (String word : expertise.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}+#]+")) {
+            if (word.length() > 1) {
+                mask |= 1L << (word.hashCode() & 63);
+            }
+        }
+        return mask;
+    }
+
+    private int[] rankMentors(int appliedMentor, int category, long menteeExpertise, int excludedMentor) {
+        long[] candidates = new long[capacities.length];
+        int count = 0;
+        for (int mentor = 0; mentor < capacities.length; mentor++) {
+            if (mentor == excludedMentor || capacities[mentor] <= 0) {
+                continue;
+            }
+            int score = score(appliedMentor, category, menteeExpertise, mentor);
+            if (score > 0) {
+                // Lower mentor indexes win ties, the key is negated to sort the best first
+                candidates[count++] = -(((long) score << 32) | (capacities.length - 1 - mentor));
+            }
+        }
+        Arrays.sort(candidates, 0, count);
+        int[] ranking = new int[count];
+        for (int i = 0; i < count; i++) {
+            ranking[i] = capacities.length - 1 - (int) (-candidates[i] & 0xFFFFFFFFL);
+        }
+        return ranking;
+    }
+
+    private int score(int appliedMentor, int category, long menteeExpertise, int mentor) {
+        int score = Long.bitCount(menteeExpertise & expertise[mentor]);
+        if (category != NO_CATEGORY && category == categories[mentor]) {
+            score += CATEGORY_SCORE;
+        }
+        if (appliedMentor == mentor) {
+            score += APPLIED_MENTOR_SCORE;
+        }
+        return score;
+    }
+
+    private static void push(long[] heap, int size, long value) {
+        int i = size;
+        heap[i] = value;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= heap[i]) {
+                return;
+            }
+            swap(heap, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void replaceMin(long[] heap, int size, long value) {
+        heap[0] = value;
+        int i = 0;
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && heap[left] < heap[smallest]) {
+                smallest = left;
+            }
+            if (right < size && heap[right] < heap[smallest]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(heap, i, smallest);
+            i = smallest;
+        }
+    }
+
+    private static void swap(long[] heap, int i, int j) {
+        long value = heap[i];
+        heap[i] = heap[j];
+        heap[j] = value;
+    }
+}
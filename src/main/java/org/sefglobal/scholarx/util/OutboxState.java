@@ -0,0 +1,8 @@
+package org.sefglobal.scholarx.util;
+
+public enum OutboxState {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
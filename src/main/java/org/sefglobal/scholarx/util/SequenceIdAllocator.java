@@ -0,0 +1,36 @@
+package org.sefglobal.scholarx.util;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reserves ids from the sequence backing {@link org.sefglobal.scholarx.model.BaseScholarxModel}
+ * so that rows written with plain JDBC batches share the id space of JPA managed rows
+ */
+@Component
+public class SequenceIdAllocator {
+
+    private static final String SEQUENCE_NAME = "hibernate_sequence";
+    private final JdbcTemplate jdbcTemplate;
+
+    public SequenceIdAllocator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Reserves a block of ids with a single round trip
+     *
+     * @param count which is the number of ids required
+     * @return {@link List} of reserved ids
+     */
+    public List<Long> nextIds(int count) {
+        if (count <= 0) {
+            return Collections.emptyList();
+        }
+        return jdbcTemplate.queryForList(
+                "SELECT nextval('" + SEQUENCE_NAME + "') FROM generate_series(1, ?)", Long.class, count);
+    }
+}
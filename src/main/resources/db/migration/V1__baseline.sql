@@ -0,0 +1,119 @@
+-- Schema generated by Hibernate (ddl-auto: update) before the migrations were added.
+-- Existing databases are baselined at this version, so this script only runs against empty
+-- databases and must not change. Later changes go in new migrations.
+
+CREATE SEQUENCE hibernate_sequence START 1 INCREMENT 1;
+
+CREATE TABLE profile (
+    id                         int8         NOT NULL,
+    created_at                 timestamp    NOT NULL,
+    updated_at                 timestamp    NOT NULL,
+    uid                        varchar(36)  NOT NULL,
+    email                      varchar(255) NOT NULL,
+    first_name                 varchar(255),
+    last_name                  varchar(255),
+    image_url                  varchar(255),
+    linkedin_url               varchar(255),
+    has_confirmed_user_details boolean,
+    headline                   varchar(50),
+    type                       varchar(10)  NOT NULL,
+    CONSTRAINT profile_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE program (
+    id               int8         NOT NULL,
+    created_at       timestamp    NOT NULL,
+    updated_at       timestamp    NOT NULL,
+    title            varchar(255),
+    headline         varchar(255),
+    image_url        text,
+    landing_page_url varchar(255),
+    state            varchar(25)  NOT NULL,
+    CONSTRAINT program_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE mentor (
+    id                     int8         NOT NULL,
+    created_at             timestamp    NOT NULL,
+    updated_at             timestamp    NOT NULL,
+    state                  varchar(20)  NOT NULL,
+    profile_id             int8         NOT NULL,
+    program_id             int8         NOT NULL,
+    name                   varchar(255),
+    country                varchar(255),
+    link                   varchar(255),
+    category               varchar(255) NOT NULL,
+    expertise              varchar(255),
+    institution            varchar(255),
+    "position"             varchar(255),
+    bio                    text,
+    expectations           text,
+    philosophy             text,
+    is_committed           boolean      NOT NULL,
+    is_past_mentor         boolean      NOT NULL,
+    year                   varchar(255),
+    motivation             text,
+    changed_motivation     text,
+    reason_for_applying    text,
+    cv_url                 varchar(255),
+    referee1name           varchar(255),
+    referee1email          varchar(255),
+    referee2name           varchar(255),
+    referee2email          varchar(255),
+    slots                  int4         NOT NULL,
+    no_of_assigned_mentees int4         NOT NULL,
+    CONSTRAINT mentor_pkey PRIMARY KEY (id),
+    CONSTRAINT mentor_profile_id_fkey FOREIGN KEY (profile_id) REFERENCES profile (id),
+    CONSTRAINT mentor_program_id_fkey FOREIGN KEY (program_id) REFERENCES program (id)
+);
+
+CREATE TABLE mentee (
+    id                 int8        NOT NULL,
+    created_at         timestamp   NOT NULL,
+    updated_at         timestamp   NOT NULL,
+    state              varchar(20) NOT NULL,
+    profile_id         int8        NOT NULL,
+    program_id         int8        NOT NULL,
+    university         varchar(255),
+    course             varchar(255),
+    year               varchar(255),
+    intent             text,
+    reason_for_choice  text,
+    resume_url         text,
+    achievements       text,
+    applied_mentor_id  int8        NOT NULL,
+    assigned_mentor_id int8,
+    rejected_by_id     int8,
+    CONSTRAINT mentee_pkey PRIMARY KEY (id),
+    CONSTRAINT mentee_profile_id_fkey FOREIGN KEY (profile_id) REFERENCES profile (id),
+    CONSTRAINT mentee_program_id_fkey FOREIGN KEY (program_id) REFERENCES program (id),
+    CONSTRAINT mentee_applied_mentor_id_fkey FOREIGN KEY (applied_mentor_id) REFERENCES mentor (id),
+    CONSTRAINT mentee_assigned_mentor_id_fkey FOREIGN KEY (assigned_mentor_id) REFERENCES mentor (id),
+    CONSTRAINT mentee_rejected_by_id_fkey FOREIGN KEY (rejected_by_id) REFERENCES mentor (id)
+);
+
+CREATE TABLE comment (
+    id              int8         NOT NULL,
+    created_at      timestamp    NOT NULL,
+    updated_at      timestamp    NOT NULL,
+    mentee_id       int8,
+    comment         varchar(255),
+    commented_by_id int8,
+    CONSTRAINT comment_pkey PRIMARY KEY (id),
+    CONSTRAINT comment_mentee_id_fkey FOREIGN KEY (mentee_id) REFERENCES mentee (id),
+    CONSTRAINT comment_commented_by_id_fkey FOREIGN KEY (commented_by_id) REFERENCES profile (id)
+);
+
+CREATE TABLE email (
+    id          int8         NOT NULL,
+    created_at  timestamp    NOT NULL,
+    updated_at  timestamp    NOT NULL,
+    email       varchar(255),
+    message     text,
+    program_id  int8,
+    receiver_id int8,
+    state       varchar(255),
+    CONSTRAINT email_pkey PRIMARY KEY (id),
+    CONSTRAINT email_program_id_fkey FOREIGN KEY (program_id) REFERENCES program (id),
+    CONSTRAINT email_receiver_id_fkey FOREIGN KEY (receiver_id) REFERENCES profile (id)
+);
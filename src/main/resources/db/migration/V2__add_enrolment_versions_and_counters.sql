@@ -0,0 +1,11 @@
+-- Optimistic locking of enrolments and the per-mentor mentee counters kept up to date by
+-- increments. The counters are backfilled by V5
+ALTER TABLE mentor ADD COLUMN version bigint NOT NULL DEFAULT 0;
+ALTER TABLE mentor ADD COLUMN no_of_applied_mentees integer NOT NULL DEFAULT 0;
+ALTER TABLE mentor ADD COLUMN no_of_rejected_mentees integer NOT NULL DEFAULT 0;
+ALTER TABLE mentee ADD COLUMN version bigint NOT NULL DEFAULT 0;
+
+-- Keyset pagination of the mentor and mentee listings
+CREATE INDEX mentor_created_at_id_idx ON mentor (created_at, id);
+CREATE INDEX mentor_program_id_created_at_id_idx ON mentor (program_id, created_at, id);
+CREATE INDEX mentee_program_id_created_at_id_idx ON mentee (program_id, created_at, id);
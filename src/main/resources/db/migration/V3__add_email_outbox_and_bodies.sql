@@ -0,0 +1,27 @@
+-- Notification emails are queued in an outbox and sent by EmailOutboxService. The audit rows
+-- of sent emails reference a template and a content addressed body instead of a copy of the
+-- rendered message, which is kept for the rows written before
+CREATE TABLE email_body (
+    hash    varchar(64) NOT NULL,
+    content text        NOT NULL,
+    CONSTRAINT email_body_pkey PRIMARY KEY (hash)
+);
+
+ALTER TABLE email ADD COLUMN template_id varchar(64);
+ALTER TABLE email ADD COLUMN body_hash varchar(64);
+ALTER TABLE email ADD COLUMN params text;
+ALTER TABLE email ADD CONSTRAINT email_body_hash_fkey FOREIGN KEY (body_hash) REFERENCES email_body (hash);
+
+CREATE TABLE email_outbox (
+    id          int8         NOT NULL,
+    created_at  timestamp    NOT NULL,
+    updated_at  timestamp    NOT NULL,
+    recipient   varchar(255) NOT NULL,
+    subject     varchar(255),
+    message     text,
+    show_button boolean      NOT NULL,
+    state       varchar(10)  NOT NULL,
+    attempts    int4         NOT NULL,
+    last_error  text,
+    CONSTRAINT email_outbox_pkey PRIMARY KEY (id)
+);
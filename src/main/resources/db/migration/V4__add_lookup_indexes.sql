@@ -0,0 +1,53 @@
+-- Indexes for the lookups made on every request. Partial indexes cover the rows the hot
+-- queries filter on, so they stay small as old programs accumulate.
+
+-- ProfileRepository.findByUid runs on every login
+CREATE UNIQUE INDEX profile_uid_key ON profile (uid);
+CREATE INDEX profile_email_idx ON profile (email);
+
+CREATE INDEX mentor_program_id_state_idx ON mentor (program_id, state);
+CREATE INDEX mentor_profile_id_program_id_idx ON mentor (profile_id, program_id);
+
+-- The public mentor directory and the matching engine only read approved mentors
+CREATE INDEX mentor_program_id_approved_idx ON mentor (program_id, id) WHERE state = 'APPROVED';
+
+-- Replaces the index created on start up before the schema was migrated. The expression
+-- must stay identical to MentorRepository.SEARCH_VECTOR
+DROP INDEX IF EXISTS idx_mentor_search;
+CREATE INDEX mentor_search_idx ON mentor USING GIN (
+    (setweight(to_tsvector('english', coalesce(expertise, '')), 'A') ||
+     setweight(to_tsvector('english', replace(coalesce(category, ''), '_', ' ')), 'A') ||
+     setweight(to_tsvector('english', coalesce("position", '') || ' ' || coalesce(institution, '')), 'B') ||
+     setweight(to_tsvector('english', coalesce(bio, '')), 'C'))
+) WHERE state = 'APPROVED';
+
+CREATE INDEX mentee_program_id_state_idx ON mentee (program_id, state);
+CREATE INDEX mentee_profile_id_program_id_idx ON mentee (profile_id, program_id);
+CREATE INDEX mentee_assigned_mentor_id_state_idx ON mentee (assigned_mentor_id, state);
+CREATE INDEX mentee_applied_mentor_id_idx ON mentee (applied_mentor_id);
+CREATE INDEX mentee_rejected_by_id_idx ON mentee (rejected_by_id) WHERE rejected_by_id IS NOT NULL;
+
+-- A profile applies once per program. Removed applications are kept for history, as older
+-- programs let a mentee apply for several mentors and removed the extra applications. Any
+-- other duplicates are removed first, keeping the most advanced and then the latest one,
+-- so that the index can be built
+UPDATE mentee
+SET state = 'REMOVED', version = version + 1, updated_at = NOW()
+WHERE id IN (
+    SELECT id
+    FROM (SELECT id, row_number() OVER (
+                     PARTITION BY program_id, profile_id
+                     ORDER BY CASE state WHEN 'APPROVED' THEN 0 WHEN 'ASSIGNED' THEN 1 ELSE 2 END, id DESC
+                 ) AS rn
+          FROM mentee
+          WHERE state <> 'REMOVED') ranked
+    WHERE rn > 1);
+
+CREATE UNIQUE INDEX mentee_program_id_profile_id_key ON mentee (program_id, profile_id)
+    WHERE state <> 'REMOVED';
+
+CREATE INDEX comment_mentee_id_idx ON comment (mentee_id);
+CREATE INDEX email_program_id_idx ON email (program_id);
+
+-- EmailOutboxService polls for pending emails in id order
+CREATE INDEX email_outbox_pending_idx ON email_outbox (id) WHERE state = 'PENDING';
@@ -0,0 +1,5 @@
+-- The applied and rejected counters were added by V2 with a default of 0 and are only kept
+-- up to date by increments, so they are recounted once for the existing mentees
+UPDATE mentor m
+SET no_of_applied_mentees = (SELECT COUNT(*) FROM mentee e WHERE e.applied_mentor_id = m.id),
+    no_of_rejected_mentees = (SELECT COUNT(*) FROM mentee e WHERE e.rejected_by_id = m.id);
@@ -0,0 +1,4 @@
+-- MenteeRepository.streamDistinctRecipientsByProgramId reads the first application of each
+-- profile of a program. Walking this index gives the rows in DISTINCT ON order, so they are
+-- streamed without sorting every application of the program first
+CREATE INDEX mentee_program_id_profile_id_id_idx ON mentee (program_id, profile_id, id);
@@ -0,0 +1,8 @@
+-- Outbox emails are claimed by one instance at a time. A claim older than the lease timeout
+-- is released back to the outbox, and failed attempts wait for next_attempt_at before retry
+ALTER TABLE email_outbox ADD COLUMN claimed_by varchar(64);
+ALTER TABLE email_outbox ADD COLUMN claimed_at timestamp;
+ALTER TABLE email_outbox ADD COLUMN next_attempt_at timestamp NOT NULL DEFAULT NOW();
+
+CREATE INDEX email_outbox_sending_claimed_at_idx ON email_outbox (claimed_at) WHERE state = 'SENDING';
+CREATE INDEX email_outbox_sent_updated_at_idx ON email_outbox (updated_at) WHERE state = 'SENT';
@@ -0,0 +1,6 @@
+-- Templated outbox emails reference the shared email body and their parameters instead of
+-- a rendered copy of the message per recipient. The message column is kept for emails
+-- which are not rendered from a template and for the rows queued before
+ALTER TABLE email_outbox ADD COLUMN body_hash varchar(64);
+ALTER TABLE email_outbox ADD COLUMN params text;
+ALTER TABLE email_outbox ADD CONSTRAINT email_outbox_body_hash_fkey FOREIGN KEY (body_hash) REFERENCES email_body (hash);
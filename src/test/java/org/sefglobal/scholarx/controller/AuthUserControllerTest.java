@@ -5,6 +5,7 @@ import org.sefglobal.scholarx.exception.BadRequestException;
 import org.sefglobal.scholarx.exception.NoContentException;
 import org.sefglobal.scholarx.exception.ResourceNotFoundException;
 import org.sefglobal.scholarx.model.Profile;
+import org.sefglobal.scholarx.service.EnrolledProgramService;
 import org.sefglobal.scholarx.service.IntrospectionService;
 import org.sefglobal.scholarx.service.ProfileService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,6 +31,8 @@ public class AuthUserControllerTest {
 	private ProfileService profileService;
 	@MockBean
 	private IntrospectionService introspectionService;
+	@MockBean
+	private EnrolledProgramService enrolledProgramService;
 	private final Long programId = 1L;
 	private final Long mentorId = 1L;
 
@@ -41,6 +44,26 @@ public class AuthUserControllerTest {
 		return new OAuth2AuthenticationToken(profile, null, "linkedin");
 	}
 
+	@Test
+	@WithMockUser(username = "user", authorities = {"DEFAULT"})
+	void getEnrolledPrograms_withValidData_thenReturns200() throws Exception {
+		mockMvc.perform(get("/api/me/programs")
+						.with(authentication(getOauthAuthentication())))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	@WithMockUser(username = "user", authorities = {"DEFAULT"})
+	void getEnrolledPrograms_withUnavailableData_thenReturns204() throws Exception {
+		doThrow(NoContentException.class)
+				.when(enrolledProgramService)
+				.getEnrolledPrograms(anyLong());
+
+		mockMvc.perform(get("/api/me/programs")
+						.with(authentication(getOauthAuthentication())))
+				.andExpect(status().isNoContent());
+	}
+
 	@Test
 	@WithMockUser(username = "user", authorities = {"DEFAULT"})
 	void getMenteeingPrograms_withValidData_thenReturns200() throws Exception {
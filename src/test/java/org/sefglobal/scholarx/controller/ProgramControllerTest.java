@@ -11,7 +11,11 @@ import org.sefglobal.scholarx.model.Mentee;
 import org.sefglobal.scholarx.model.Mentor;
 import org.sefglobal.scholarx.model.Profile;
 import org.sefglobal.scholarx.model.Program;
+import org.sefglobal.scholarx.service.ExportService;
+import org.sefglobal.scholarx.service.MatchingService;
+import org.sefglobal.scholarx.service.MentorDirectoryService;
 import org.sefglobal.scholarx.service.ProgramService;
+import org.sefglobal.scholarx.util.ExportFormat;
 import org.sefglobal.scholarx.util.ProgramState;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -24,9 +28,11 @@ import org.springframework.test.web.servlet.MockMvc;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = {ProgramController.class, org.sefglobal.scholarx.controller.ProgramController.class})
@@ -37,6 +43,12 @@ public class ProgramControllerTest {
 	private ObjectMapper objectMapper;
 	@MockBean
 	private ProgramService programService;
+	@MockBean
+	private ExportService exportService;
+	@MockBean
+	private MatchingService matchingService;
+	@MockBean
+	private MentorDirectoryService mentorDirectoryService;
 	private final Long programId = 1L;
 	private final Program program
 			= new Program("SCHOLARX-2020",
@@ -170,16 +182,35 @@ public class ProgramControllerTest {
 	@Test
 	@WithMockUser(username = "user", authorities = {"DEFAULT"})
 	void getAllMentorsByProgramId_withValidData_thenReturns200() throws Exception {
+		MentorDirectoryService.Snapshot snapshot = new MentorDirectoryService.Snapshot("[]".getBytes());
+		doReturn(snapshot)
+				.when(mentorDirectoryService)
+				.getSnapshot(anyLong(), any());
+
 		mockMvc.perform(get("/api/programs/{id}/mentors", programId))
-				.andExpect(status().isOk());
+				.andExpect(status().isOk())
+				.andExpect(header().string("ETag", snapshot.getEtag()));
+	}
+
+	@Test
+	@WithMockUser(username = "user", authorities = {"DEFAULT"})
+	void getAllMentorsByProgramId_withMatchingEtag_thenReturns304() throws Exception {
+		MentorDirectoryService.Snapshot snapshot = new MentorDirectoryService.Snapshot("[]".getBytes());
+		doReturn(snapshot)
+				.when(mentorDirectoryService)
+				.getSnapshot(anyLong(), any());
+
+		mockMvc.perform(get("/api/programs/{id}/mentors", programId)
+						.header("If-None-Match", snapshot.getEtag()))
+				.andExpect(status().isNotModified());
 	}
 
 	@Test
 	@WithMockUser(username = "user", authorities = {"DEFAULT"})
 	void getAllMentorsByProgramId_withUnavailableData_thenReturns404() throws Exception {
 		doThrow(ResourceNotFoundException.class)
-				.when(programService)
-				.getAllMentorsByProgramId(anyLong(), any());
+				.when(mentorDirectoryService)
+				.getSnapshot(anyLong(), any());
 
 		mockMvc.perform(get("/api/programs/{id}/mentors", programId))
 				.andExpect(status().isNotFound());
@@ -317,6 +348,28 @@ public class ProgramControllerTest {
 				.andExpect(status().isNotFound());
 	}
 
+	@Test
+	@WithMockUser(username = "user", authorities = {"ADMIN"})
+	void exportMenteesByProgramId_withValidData_thenReturns200() throws Exception {
+		mockMvc.perform(get("/api/admin/programs/{id}/mentees/export", programId)
+						.param("format", "CSV"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Content-Disposition", "attachment; filename=\"program-1-mentees.csv\""));
+
+		verify(exportService).exportMentees(eq(programId.longValue()), eq(ExportFormat.CSV), any());
+	}
+
+	@Test
+	@WithMockUser(username = "user", authorities = {"ADMIN"})
+	void exportMenteesByProgramId_withUnavailableData_thenReturns404() throws Exception {
+		doThrow(ResourceNotFoundException.class)
+				.when(exportService)
+				.checkProgramExists(anyLong());
+
+		mockMvc.perform(get("/api/admin/programs/{id}/mentees/export", programId))
+				.andExpect(status().isNotFound());
+	}
+
 	@Test
 	@WithMockUser(username = "user", authorities = {"DEFAULT"})
 	void updateMenteeData_withUnavailableData_thenReturn404() throws Exception {
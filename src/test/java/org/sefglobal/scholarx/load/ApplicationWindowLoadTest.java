@@ -0,0 +1,332 @@
+package org.sefglobal.scholarx.load;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.sefglobal.scholarx.model.Mentor;
+import org.sefglobal.scholarx.model.Profile;
+import org.sefglobal.scholarx.model.Program;
+import org.sefglobal.scholarx.repository.MentorRepository;
+import org.sefglobal.scholarx.repository.ProfileRepository;
+import org.sefglobal.scholarx.repository.ProgramRepository;
+import org.sefglobal.scholarx.service.MailConnection;
+import org.sefglobal.scholarx.util.EnrolmentState;
+import org.sefglobal.scholarx.util.MentorCategory;
+import org.sefglobal.scholarx.util.ProfileType;
+import org.sefglobal.scholarx.util.ProgramState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replays the traffic of the opening of {@link ProgramState#MENTEE_APPLICATION} against the
+ * application running on Postgres: students browse the mentor directory, apply for a mentor
+ * and check their applications. Students are logged in through a stub of the OAuth2 login
+ * and emails are accepted by a mock of the SMTP connection.
+ * <p>
+ * Excluded from the default build, run with {@code mvn -Pload test}. The cohort is sized
+ * with the {@code load.*} system properties. Latency percentiles and throughput of each
+ * endpoint are logged and written to {@code target/load-test-report.csv}
+ */
+@Tag("load")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.security.oauth2.client.registration.google.client-id=load-test",
+        "spring.security.oauth2.client.registration.google.client-secret=load-test",
+        "management.server.port=-1"
+})
+@Import(ApplicationWindowLoadTest.StubLoginConfig.class)
+public class ApplicationWindowLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ApplicationWindowLoadTest.class);
+    private static final String PROFILE_HEADER = "X-Load-Test-Profile";
+    private static final String SESSION_COOKIE = "JSESSIONID";
+    private static final int MENTORS = Integer.getInteger("load.mentors", 200);
+    private static final int STUDENTS = Integer.getInteger("load.students", 2000);
+    private static final int DIRECTORY_VIEWS_PER_STUDENT = Integer.getInteger("load.directory-views", 3);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 200);
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:12-alpine");
+
+    @MockBean
+    private MailConnection mailConnection;
+    @Autowired
+    private ProgramRepository programRepository;
+    @Autowired
+    private ProfileRepository profileRepository;
+    @Autowired
+    private MentorRepository mentorRepository;
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Test
+    void applicationWindow_thenReportLatencyPerEndpoint() throws IOException {
+        Program program = programRepository.save(
+                new Program("ScholarX", "ScholarX program", null, null, ProgramState.MENTEE_APPLICATION));
+        List<Long> mentorIds = seedMentors(program);
+        List<Long> studentIds = seedProfiles(STUDENTS);
+        WebClient webClient = WebClient.create("http://localhost:" + port);
+
+        Map<Long, String> sessions = new HashMap<>();
+        Flux.fromIterable(studentIds)
+                .flatMap(studentId -> webClient.get()
+                        .uri("/api/me")
+                        .header(PROFILE_HEADER, studentId.toString())
+                        .exchange()
+                        .flatMap(response -> {
+                            ResponseCookie cookie = response.cookies().getFirst(SESSION_COOKIE);
+                            return response.releaseBody().thenReturn(cookie.getValue());
+                        })
+                        .map(session -> Collections.singletonMap(studentId, session)), CONCURRENCY)
+                .toStream()
+                .forEach(sessions::putAll);
+
+        List<Request> requests = new ArrayList<>();
+        Random random = new Random(42);
+        for (Long studentId : studentIds) {
+            String session = sessions.get(studentId);
+            for (int i = 0; i < DIRECTORY_VIEWS_PER_STUDENT; i++) {
+                requests.add(new Request("GET /api/programs/{id}/mentors", () -> webClient.get()
+                        .uri("/api/programs/{id}/mentors", program.getId())
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .exchange()));
+            }
+            long mentorId = mentorIds.get(random.nextInt(mentorIds.size()));
+            requests.add(new Request("POST /api/mentors/{id}/mentee", () -> webClient.post()
+                    .uri("/api/mentors/{id}/mentee", mentorId)
+                    .cookie(SESSION_COOKIE, session)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(application())
+                    .exchange()));
+            requests.add(new Request("GET /api/me/programs", () -> webClient.get()
+                    .uri("/api/me/programs")
+                    .cookie(SESSION_COOKIE, session)
+                    .exchange()));
+        }
+        Collections.shuffle(requests, random);
+
+        long start = System.nanoTime();
+        List<Sample> samples = Flux.fromIterable(requests)
+                .flatMap(this::send, CONCURRENCY)
+                .collectList()
+                .block(Duration.ofMinutes(30));
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Map<String, List<Sample>> samplesByEndpoint = new LinkedHashMap<>();
+        for (Sample sample : samples) {
+            samplesByEndpoint.computeIfAbsent(sample.endpoint, endpoint -> new ArrayList<>()).add(sample);
+        }
+        report(samplesByEndpoint, seconds);
+
+        assertThat(samples).hasSize(requests.size());
+        assertThat(samples).noneMatch(sample -> sample.status >= 500);
+    }
+
+    private Mono<Sample> send(Request request) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return request.call.get()
+                    .flatMap(response -> response.releaseBody().thenReturn(response.rawStatusCode()))
+                    .map(status -> new Sample(request.endpoint, status, System.nanoTime() - start));
+        });
+    }
+
+    private void report(Map<String, List<Sample>> samplesByEndpoint, double seconds) throws IOException {
+        Files.createDirectories(Paths.get("target"));
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(Paths.get("target", "load-test-report.csv")))) {
+            writer.println("endpoint,requests,errors,p50_ms,p99_ms,max_ms,requests_per_second");
+            for (Map.Entry<String, List<Sample>> entry : samplesByEndpoint.entrySet()) {
+                List<Sample> samples = entry.getValue();
+                long[] latencies = new long[samples.size()];
+                int errors = 0;
+                for (int i = 0; i < samples.size(); i++) {
+                    latencies[i] = samples.get(i).nanos;
+                    if (samples.get(i).status >= 400) {
+                        errors++;
+                    }
+                }
+                Arrays.sort(latencies);
+                String row = String.format("%s,%d,%d,%.2f,%.2f,%.2f,%.1f", entry.getKey(), samples.size(), errors,
+                        percentile(latencies, 0.50), percentile(latencies, 0.99),
+                        latencies[latencies.length - 1] / 1e6, samples.size() / seconds);
+                writer.println(row);
+                log.info(row);
+            }
+        }
+    }
+
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(index, 0)] / 1e6;
+    }
+
+    private List<Long> seedMentors(Program program) {
+        List<Long> profileIds = seedProfiles(MENTORS);
+        MentorCategory[] categories = MentorCategory.values();
+        List<Mentor> mentors = new ArrayList<>(MENTORS);
+        for (int i = 0; i < MENTORS; i++) {
+            Mentor mentor = new Mentor();
+            mentor.setProfile(profileRepository.getOne(profileIds.get(i)));
+            mentor.setProgram(program);
+            mentor.setState(EnrolmentState.APPROVED);
+            mentor.setCategory(categories[i % categories.length]);
+            mentor.setExpertise("Java, Spring, Machine Learning");
+            mentor.setInstitution("Sustainable Education Foundation");
+            mentor.setBio("Mentor " + i + " helps students find their way into research and the industry.");
+            mentor.setSlots(3);
+            mentors.add(mentor);
+        }
+        List<Long> mentorIds = new ArrayList<>(MENTORS);
+        for (Mentor mentor : mentorRepository.saveAll(mentors)) {
+            mentorIds.add(mentor.getId());
+        }
+        return mentorIds;
+    }
+
+    private List<Long> seedProfiles(int count) {
+        List<Profile> profiles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Profile profile = new Profile();
+            profile.setUid(UUID.randomUUID().toString());
+            profile.setEmail(profile.getUid() + "@scholarx.org");
+            profile.setFirstName("Student");
+            profile.setLastName(Integer.toString(i));
+            profile.setHasConfirmedUserDetails(true);
+            profile.setType(ProfileType.DEFAULT);
+            profiles.add(profile);
+        }
+        List<Long> profileIds = new ArrayList<>(count);
+        for (Profile profile : profileRepository.saveAll(profiles)) {
+            profileIds.add(profile.getId());
+        }
+        return profileIds;
+    }
+
+    private static Map<String, String> application() {
+        Map<String, String> application = new HashMap<>();
+        application.put("university", "University of Moratuwa");
+        application.put("course", "Computer Science and Engineering");
+        application.put("year", "3");
+        application.put("intent", "To learn how research is done in industry.");
+        application.put("reasonForChoice", "Their expertise matches my final year project.");
+        return application;
+    }
+
+    private static class Request {
+        private final String endpoint;
+        private final Supplier<Mono<ClientResponse>> call;
+
+        private Request(String endpoint, Supplier<Mono<ClientResponse>> call) {
+            this.endpoint = endpoint;
+            this.call = call;
+        }
+    }
+
+    private static class Sample {
+        private final String endpoint;
+        private final int status;
+        private final long nanos;
+
+        private Sample(String endpoint, int status, long nanos) {
+            this.endpoint = endpoint;
+            this.status = status;
+            this.nanos = nanos;
+        }
+    }
+
+    /**
+     * Stands in for the OAuth2 login. A request carrying the profile header is given a session
+     * holding the same authentication a Google login creates, later requests only send the
+     * session cookie
+     */
+    @TestConfiguration
+    static class StubLoginConfig {
+
+        @Bean
+        FilterRegistrationBean<StubLoginFilter> stubLoginFilter(ProfileRepository profileRepository) {
+            FilterRegistrationBean<StubLoginFilter> registration =
+                    new FilterRegistrationBean<>(new StubLoginFilter(profileRepository));
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            return registration;
+        }
+    }
+
+    static class StubLoginFilter extends OncePerRequestFilter {
+
+        private final ProfileRepository profileRepository;
+
+        StubLoginFilter(ProfileRepository profileRepository) {
+            this.profileRepository = profileRepository;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                        FilterChain filterChain) throws ServletException, IOException {
+            String profileId = request.getHeader(PROFILE_HEADER);
+            if (profileId != null) {
+                Profile profile = profileRepository.findById(Long.parseLong(profileId))
+                        .orElseThrow(() -> new ServletException("Error, Profile with id: " + profileId +
+                                                                " doesn't exist."));
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(new OAuth2AuthenticationToken(profile, profile.getAuthorities(), "google"));
+                request.getSession().setAttribute(
+                        HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, context);
+            }
+            filterChain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.sefglobal.scholarx.repository;
+
+import org.junit.jupiter.api.Test;
+import org.sefglobal.scholarx.config.JpaConfig;
+import org.sefglobal.scholarx.model.EmailBody;
+import org.sefglobal.scholarx.model.Program;
+import org.sefglobal.scholarx.model.SentEmail;
+import org.sefglobal.scholarx.util.EmailTemplate;
+import org.sefglobal.scholarx.util.EmailTemplateStore;
+import org.sefglobal.scholarx.util.ProgramState;
+import org.sefglobal.scholarx.util.SequenceIdAllocator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({JpaConfig.class, EmailTemplateStore.class, SequenceIdAllocator.class})
+public class EmailRepositoryTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:12-alpine");
+
+    @Autowired
+    private EmailRepository emailRepository;
+    @Autowired
+    private EmailTemplateStore emailTemplateStore;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Test
+    void insertAll_withSharedBody_thenStoreBodyOnce() {
+        jdbcTemplate.update("INSERT INTO program (id, created_at, updated_at, title, state) " +
+                            "VALUES (1, NOW(), NOW(), 'ScholarX 2023', 'ONGOING')");
+        Program program = new Program();
+        program.setId(1L);
+        EmailBody body = emailTemplateStore.getBody(EmailTemplate.MENTEE_APPROVED);
+
+        List<SentEmail> emails = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            emails.add(sentEmail(program, body, "mentee" + i + "@scholarx.org"));
+        }
+        emailRepository.insertAll(emails);
+        emailRepository.insertAll(Collections.singletonList(sentEmail(program, body, "mentee@scholarx.org")));
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM email_body WHERE hash = ?", Long.class, body.getHash())).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM email WHERE message IS NULL AND body_hash = ?", Long.class,
+                body.getHash())).isEqualTo(4);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT content FROM email_body WHERE hash = ?", String.class, body.getHash()))
+                .isEqualTo(body.getContent());
+    }
+
+    @Test
+    void findMessageById_thenRenderStoredBodyOrReturnLegacyMessage() {
+        jdbcTemplate.update("INSERT INTO program (id, created_at, updated_at, title, state) " +
+                            "VALUES (1, NOW(), NOW(), 'ScholarX 2023', 'ONGOING')");
+        Program program = new Program();
+        program.setId(1L);
+        SentEmail templated = sentEmail(program, emailTemplateStore.getBody(EmailTemplate.MENTEE_APPROVED),
+                "jane@scholarx.org");
+        SentEmail legacy = new SentEmail();
+        legacy.setEmail("john@scholarx.org");
+        legacy.setMessage("Hello John");
+        legacy.setProgramId(program);
+        legacy.setState(ProgramState.ONGOING);
+        emailRepository.insertAll(Arrays.asList(templated, legacy));
+
+        assertThat(emailRepository.findMessageById(templated.getId()))
+                .hasValueSatisfying(message -> assertThat(message).startsWith("Dear Jane,"));
+        assertThat(emailRepository.findMessageById(legacy.getId())).hasValue("Hello John");
+        assertThat(emailRepository.findMessageById(-1L)).isEmpty();
+    }
+
+    private SentEmail sentEmail(Program program, EmailBody body, String address) {
+        SentEmail email = new SentEmail();
+        email.setEmail(address);
+        email.setTemplateId(EmailTemplate.MENTEE_APPROVED.getId());
+        email.setBody(body);
+        email.setParams("{\"name\":\"Jane\",\"programTitle\":\"ScholarX 2023\"}");
+        email.setProgramId(program);
+        email.setState(ProgramState.ONGOING);
+        return email;
+    }
+}
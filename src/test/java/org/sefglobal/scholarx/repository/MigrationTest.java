@@ -0,0 +1,53 @@
+package org.sefglobal.scholarx.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Upgrades a database holding the baseline schema and data that predates the migrations,
+ * as a production database baselined at version 1 is upgraded on the first start
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class MigrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:12-alpine");
+
+    @Test
+    void migrate_fromBaselineWithDuplicateApplications_thenKeepOneApplicationPerProgram() {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        Flyway.configure().dataSource(dataSource).target("1").load().migrate();
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO profile (id, created_at, updated_at, uid, email, type) " +
+                            "VALUES (1, NOW(), NOW(), 'uid-1', 'mentor@scholarx.org', 'DEFAULT'), " +
+                            "(2, NOW(), NOW(), 'uid-2', 'mentee@scholarx.org', 'DEFAULT')");
+        jdbcTemplate.update("INSERT INTO program (id, created_at, updated_at, title, state) " +
+                            "VALUES (3, NOW(), NOW(), 'ScholarX', 'MENTEE_SELECTION')");
+        jdbcTemplate.update("INSERT INTO mentor (id, created_at, updated_at, state, profile_id, program_id, " +
+                            "category, is_committed, is_past_mentor, slots, no_of_assigned_mentees) " +
+                            "VALUES (4, NOW(), NOW(), 'APPROVED', 1, 3, 'COMPUTER_SCIENCE', true, false, 2, 1)");
+        jdbcTemplate.update("INSERT INTO mentee (id, created_at, updated_at, state, profile_id, program_id, " +
+                            "applied_mentor_id, assigned_mentor_id) " +
+                            "VALUES (5, NOW(), NOW(), 'ASSIGNED', 2, 3, 4, 4), " +
+                            "(6, NOW(), NOW(), 'PENDING', 2, 3, 4, NULL), " +
+                            "(7, NOW(), NOW(), 'REMOVED', 2, 3, 4, NULL)");
+
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        List<String> states = jdbcTemplate.queryForList("SELECT state FROM mentee ORDER BY id", String.class);
+        assertThat(states).containsExactly("ASSIGNED", "REMOVED", "REMOVED");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT no_of_applied_mentees FROM mentor WHERE id = 4", Integer.class)).isEqualTo(3);
+    }
+}
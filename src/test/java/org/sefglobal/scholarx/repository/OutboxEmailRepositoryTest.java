@@ -0,0 +1,146 @@
+package org.sefglobal.scholarx.repository;
+
+import org.junit.jupiter.api.Test;
+import org.sefglobal.scholarx.config.JpaConfig;
+import org.sefglobal.scholarx.model.EmailBody;
+import org.sefglobal.scholarx.model.OutboxEmail;
+import org.sefglobal.scholarx.service.EmailOutboxService;
+import org.sefglobal.scholarx.util.EmailTemplate;
+import org.sefglobal.scholarx.util.EmailTemplateStore;
+import org.sefglobal.scholarx.util.OutboxState;
+import org.sefglobal.scholarx.util.SequenceIdAllocator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({JpaConfig.class, EmailTemplateStore.class, SequenceIdAllocator.class})
+public class OutboxEmailRepositoryTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:12-alpine");
+
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+    @Autowired
+    private EmailTemplateStore emailTemplateStore;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Test
+    void claimPending_withTwoOwners_thenClaimEachEmailOnce() {
+        List<OutboxEmail> emails = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            emails.add(EmailOutboxService.newEmail("mentee" + i + "@scholarx.org", "ScholarX", "Hello", false));
+        }
+        outboxEmailRepository.insertAll(emails);
+
+        List<OutboxEmail> first = outboxEmailRepository.claimPending("first", 3);
+        List<OutboxEmail> second = outboxEmailRepository.claimPending("second", 3);
+
+        assertThat(first).hasSize(3);
+        assertThat(second).hasSize(2);
+        List<Long> secondIds = second.stream().map(OutboxEmail::getId).collect(Collectors.toList());
+        assertThat(first).extracting(OutboxEmail::getId).doesNotContainAnyElementsOf(secondIds);
+        assertThat(outboxEmailRepository.claimPending("third", 3)).isEmpty();
+        assertThat(outboxEmailRepository.countByState(OutboxState.SENDING)).isEqualTo(5);
+    }
+
+    @Test
+    void claimPending_withFailureWaitingForBackoff_thenSkipEmail() {
+        OutboxEmail email = EmailOutboxService.newEmail("mentee@scholarx.org", "ScholarX", "Hello", false);
+        outboxEmailRepository.insertAll(Collections.singletonList(email));
+        OutboxEmail claimed = outboxEmailRepository.claimPending("first", 1).get(0);
+
+        outboxEmailRepository.recordFailure(claimed.getId(), "first", OutboxState.PENDING, "SMTP unavailable",
+                new Date(System.currentTimeMillis() + 60000));
+
+        assertThat(outboxEmailRepository.claimPending("first", 1)).isEmpty();
+    }
+
+    @Test
+    void releaseClaimsBefore_thenReturnOnlyExpiredClaimsToOutbox() {
+        OutboxEmail email = EmailOutboxService.newEmail("mentee@scholarx.org", "ScholarX", "Hello", false);
+        outboxEmailRepository.insertAll(Collections.singletonList(email));
+        outboxEmailRepository.claimPending("first", 1);
+
+        assertThat(outboxEmailRepository.releaseClaimsBefore(new Date(System.currentTimeMillis() - 60000),
+                OutboxState.SENDING, OutboxState.PENDING)).isZero();
+        assertThat(outboxEmailRepository.releaseClaimsBefore(new Date(System.currentTimeMillis() + 60000),
+                OutboxState.SENDING, OutboxState.PENDING)).isEqualTo(1);
+        assertThat(outboxEmailRepository.claimPending("second", 1)).hasSize(1);
+    }
+
+    @Test
+    void insertAll_withTemplatedEmails_thenStoreBodyOnceAndClaimWithBody() {
+        EmailBody body = emailTemplateStore.getBody(EmailTemplate.MENTEE_APPROVED);
+        outboxEmailRepository.insertAll(Arrays.asList(
+                EmailOutboxService.newEmail("jane@scholarx.org", "ScholarX", body, params("Jane"), true),
+                EmailOutboxService.newEmail("john@scholarx.org", "ScholarX", body, params("John"), true)));
+        outboxEmailRepository.insertAll(Collections.singletonList(
+                EmailOutboxService.newEmail("ann@scholarx.org", "ScholarX", body, params("Ann"), true)));
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM email_body WHERE hash = ?", Long.class, body.getHash())).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM email_outbox WHERE message IS NULL AND body_hash = ?", Long.class,
+                body.getHash())).isEqualTo(3);
+
+        List<OutboxEmail> claimed = outboxEmailRepository.claimPending("first", 3);
+        assertThat(claimed).extracting(OutboxEmail::getMessage).containsOnlyNulls();
+        assertThat(claimed).extracting(email -> email.getBody().getContent()).containsOnly(body.getContent());
+        assertThat(claimed).extracting(email -> emailTemplateStore.render(email.getBody(), email.getParams()))
+                .allMatch(message -> !message.contains("{{"))
+                .anyMatch(message -> message.startsWith("Dear Jane,"))
+                .anyMatch(message -> message.startsWith("Dear John,"))
+                .anyMatch(message -> message.startsWith("Dear Ann,"));
+    }
+
+    @Test
+    void findOldestCreatedAtByState_thenReturnCreationTimeOfOldestEmail() {
+        outboxEmailRepository.insertAll(Arrays.asList(
+                EmailOutboxService.newEmail("jane@scholarx.org", "ScholarX", "Hello", false),
+                EmailOutboxService.newEmail("john@scholarx.org", "ScholarX", "Hello", false)));
+        Date oldest = new Date(System.currentTimeMillis() - 3600000);
+        jdbcTemplate.update("UPDATE email_outbox SET created_at = ? WHERE recipient = ?",
+                oldest, "john@scholarx.org");
+
+        assertThat(outboxEmailRepository.findOldestCreatedAtByState(OutboxState.PENDING))
+                .isEqualToIgnoringMillis(oldest);
+        assertThat(outboxEmailRepository.findOldestCreatedAtByState(OutboxState.SENT)).isNull();
+    }
+
+    private String params(String name) {
+        Map<String, String> params = new HashMap<>();
+        params.put("name", name);
+        params.put("programTitle", "ScholarX 2023");
+        return emailTemplateStore.toJson(params);
+    }
+}
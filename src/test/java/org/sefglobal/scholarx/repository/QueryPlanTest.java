@@ -0,0 +1,128 @@
+package org.sefglobal.scholarx.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sefglobal.scholarx.config.JpaConfig;
+import org.sefglobal.scholarx.util.EmailTemplateStore;
+import org.sefglobal.scholarx.util.SequenceIdAllocator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the migrations against Postgres, lets Hibernate validate the entities against the
+ * migrated schema and checks that the hot lookups are planned on their indexes. Sequential
+ * scans are disabled as the planner would rightly prefer them on the empty tables
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({JpaConfig.class, EmailTemplateStore.class, SequenceIdAllocator.class})
+public class QueryPlanTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:12-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    @Test
+    void findByUid_thenUseUniqueUidIndex() {
+        assertThat(plan("SELECT * FROM profile WHERE uid = 'b5a4c1c0-0000-0000-0000-000000000000'"))
+                .contains("profile_uid_key");
+    }
+
+    @Test
+    void findAllByProgramIdAndState_thenUseProgramStateIndex() {
+        assertThat(plan("SELECT * FROM mentee WHERE program_id = 1 AND state = 'PENDING'"))
+                .contains("mentee_program_id_state_idx");
+        assertThat(plan("SELECT * FROM mentor WHERE program_id = 1 AND state = 'PENDING'"))
+                .contains("mentor_program_id_state_idx");
+    }
+
+    /**
+     * Both mentee_profile_id_program_id_idx and mentee_program_id_profile_id_id_idx cover
+     * this lookup, so only check that both columns are index conditions and nothing is left
+     * to filter
+     */
+    @Test
+    void findByProgramIdAndProfileId_thenUseProfileProgramIndexConditions() {
+        String menteePlan = plan("SELECT * FROM mentee WHERE program_id = 1 AND profile_id = 2");
+        assertThat(indexCondition(menteePlan)).contains("program_id = 1").contains("profile_id = 2");
+        assertThat(menteePlan).doesNotContain("Filter:");
+        assertThat(plan("SELECT * FROM mentor WHERE profile_id = 2 AND program_id = 1"))
+                .contains("mentor_profile_id_program_id_idx");
+    }
+
+    @Test
+    void findAllByProfileId_thenUseProfileProgramIndex() {
+        assertThat(plan("SELECT * FROM mentee WHERE profile_id = 2"))
+                .contains("mentee_profile_id_program_id_idx");
+    }
+
+    @Test
+    void streamDistinctRecipientsByProgramId_thenReadProgramProfileIndexWithoutSort() {
+        String plan = plan("SELECT DISTINCT ON (profile_id) profile_id, state FROM mentee " +
+                           "WHERE program_id = 1 ORDER BY profile_id, id");
+        assertThat(plan).contains("mentee_program_id_profile_id_id_idx");
+        assertThat(plan).doesNotContain("Sort");
+    }
+
+    @Test
+    void findAllByAssignedMentorIdAndState_thenUseAssignedMentorStateIndex() {
+        assertThat(plan("SELECT * FROM mentee WHERE assigned_mentor_id = 1 AND state = 'APPROVED'"))
+                .contains("mentee_assigned_mentor_id_state_idx");
+    }
+
+    @Test
+    void searchApprovedByProgramId_thenUsePartialSearchIndex() {
+        assertThat(plan("SELECT id FROM mentor " +
+                        "WHERE state = 'APPROVED' " +
+                        "AND " + MentorRepository.SEARCH_VECTOR + " @@ plainto_tsquery('english', 'java')"))
+                .contains("mentor_search_idx");
+    }
+
+    @Test
+    void claimPending_thenUsePartialPendingIndex() {
+        assertThat(plan("SELECT id FROM email_outbox " +
+                        "WHERE state = 'PENDING' AND next_attempt_at <= NOW() " +
+                        "ORDER BY id LIMIT 100 FOR UPDATE SKIP LOCKED"))
+                .contains("email_outbox_pending_idx");
+    }
+
+    private String plan(String sql) {
+        List<String> lines = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+        return String.join("\n", lines);
+    }
+
+    private static String indexCondition(String plan) {
+        return Arrays.stream(plan.split("\n"))
+                .filter(line -> line.trim().startsWith("Index Cond:"))
+                .findFirst()
+                .orElse("");
+    }
+}
@@ -0,0 +1,165 @@
+package org.sefglobal.scholarx.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sefglobal.scholarx.model.Mail;
+import org.sefglobal.scholarx.model.OutboxEmail;
+import org.sefglobal.scholarx.repository.OutboxEmailRepository;
+import org.sefglobal.scholarx.util.EmailTemplate;
+import org.sefglobal.scholarx.util.EmailTemplateStore;
+import org.sefglobal.scholarx.util.EmailUtil;
+import org.sefglobal.scholarx.util.OutboxState;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailOutboxServiceTest {
+    @Mock
+    private OutboxEmailRepository outboxEmailRepository;
+    @Mock
+    private EmailUtil emailUtil;
+    private final EmailTemplateStore emailTemplateStore = new EmailTemplateStore();
+    private EmailOutboxService emailOutboxService;
+    private final OutboxEmail email = new OutboxEmail();
+
+    @BeforeEach
+    void setUp() {
+        emailOutboxService = new EmailOutboxService(outboxEmailRepository, emailUtil, emailTemplateStore,
+                new SimpleMeterRegistry(), 1, 10, 10, 2, 1000, 60000, 60000);
+        email.setId(1L);
+        email.setRecipient("mentee@scholarx.org");
+        email.setSubject("ScholarX");
+        email.setMessage("Hello");
+        email.setState(OutboxState.PENDING);
+    }
+
+    @Test
+    void enqueue_thenPersistPendingEmail() {
+        emailOutboxService.enqueue("mentee@scholarx.org", "ScholarX", "Hello", true);
+
+        ArgumentCaptor<OutboxEmail> captor = ArgumentCaptor.forClass(OutboxEmail.class);
+        verify(outboxEmailRepository).save(captor.capture());
+        assertThat(captor.getValue().getRecipient()).isEqualTo("mentee@scholarx.org");
+        assertThat(captor.getValue().getShowButton()).isTrue();
+        assertThat(captor.getValue().getState()).isEqualTo(OutboxState.PENDING);
+    }
+
+    @Test
+    void dispatchPendingEmails_withDeliveredEmail_thenMarkAsSent() throws InterruptedException {
+        doReturn(Collections.singletonList(email))
+                .when(outboxEmailRepository)
+                .claimPending(anyString(), anyInt());
+
+        emailOutboxService.dispatchPendingEmails();
+        emailOutboxService.shutdown();
+
+        verify(outboxEmailRepository).recordDelivery(eq(1L), anyString(), eq(OutboxState.SENT));
+    }
+
+    @Test
+    void dispatchPendingEmails_withFailingAttempt_thenRetryAfterBackoff() throws InterruptedException {
+        doReturn(Collections.singletonList(email))
+                .when(outboxEmailRepository)
+                .claimPending(anyString(), anyInt());
+        doThrow(new RuntimeException("SMTP unavailable"))
+                .when(emailUtil)
+                .sendEmail(any());
+
+        long before = System.currentTimeMillis();
+        emailOutboxService.dispatchPendingEmails();
+        emailOutboxService.shutdown();
+
+        ArgumentCaptor<Date> nextAttemptAt = ArgumentCaptor.forClass(Date.class);
+        verify(outboxEmailRepository).recordFailure(eq(1L), anyString(), eq(OutboxState.PENDING), anyString(),
+                nextAttemptAt.capture());
+        assertThat(nextAttemptAt.getValue().getTime()).isGreaterThanOrEqualTo(before + 1000);
+    }
+
+    @Test
+    void backoff_thenDoubleAfterEveryAttempt() {
+        assertThat(emailOutboxService.backoff(1)).isEqualTo(1000);
+        assertThat(emailOutboxService.backoff(2)).isEqualTo(2000);
+        assertThat(emailOutboxService.backoff(4)).isEqualTo(8000);
+    }
+
+    @Test
+    void releaseExpiredClaims_thenReleaseOnlyClaimsOlderThanTimeout() {
+        long before = System.currentTimeMillis();
+        emailOutboxService.releaseExpiredClaims();
+
+        ArgumentCaptor<Date> claimedBefore = ArgumentCaptor.forClass(Date.class);
+        verify(outboxEmailRepository).releaseClaimsBefore(claimedBefore.capture(),
+                eq(OutboxState.SENDING), eq(OutboxState.PENDING));
+        assertThat(claimedBefore.getValue().getTime()).isLessThanOrEqualTo(System.currentTimeMillis() - 60000);
+        assertThat(claimedBefore.getValue().getTime()).isGreaterThanOrEqualTo(before - 60000);
+    }
+
+    @Test
+    void dispatchPendingEmails_withLastAttemptFailing_thenMarkAsFailed() throws InterruptedException {
+        email.setAttempts(1);
+        doReturn(Collections.singletonList(email))
+                .when(outboxEmailRepository)
+                .claimPending(anyString(), anyInt());
+        doThrow(new RuntimeException("SMTP unavailable"))
+                .when(emailUtil)
+                .sendEmail(any());
+
+        emailOutboxService.dispatchPendingEmails();
+        emailOutboxService.shutdown();
+
+        verify(outboxEmailRepository).recordFailure(eq(1L), anyString(), eq(OutboxState.FAILED), anyString(), any());
+    }
+
+    @Test
+    void dispatchPendingEmails_withTemplatedEmail_thenRenderBeforeSending() throws InterruptedException {
+        OutboxEmail templated = EmailOutboxService.newEmail("mentee@scholarx.org", "ScholarX",
+                emailTemplateStore.getBody(EmailTemplate.MENTEE_APPROVED),
+                emailTemplateStore.toJson(Collections.singletonMap("name", "Jane")), false);
+        templated.setId(2L);
+        doReturn(Collections.singletonList(templated))
+                .when(outboxEmailRepository)
+                .claimPending(anyString(), anyInt());
+
+        emailOutboxService.dispatchPendingEmails();
+        emailOutboxService.shutdown();
+
+        ArgumentCaptor<Mail> mail = ArgumentCaptor.forClass(Mail.class);
+        verify(emailUtil).sendEmail(mail.capture());
+        assertThat(mail.getValue().getMessage()).startsWith("Dear Jane,");
+        verify(outboxEmailRepository).recordDelivery(eq(2L), anyString(), eq(OutboxState.SENT));
+    }
+
+    @Test
+    void dispatchPendingEmails_withUnreadableParameters_thenFailOnlyThatEmail() throws InterruptedException {
+        OutboxEmail broken = EmailOutboxService.newEmail("mentor@scholarx.org", "ScholarX",
+                emailTemplateStore.getBody(EmailTemplate.MENTEE_APPROVED), "not json", false);
+        broken.setId(2L);
+        doReturn(Arrays.asList(broken, email))
+                .when(outboxEmailRepository)
+                .claimPending(anyString(), anyInt());
+
+        emailOutboxService.dispatchPendingEmails();
+        emailOutboxService.shutdown();
+
+        verify(outboxEmailRepository).recordFailure(eq(2L), anyString(), eq(OutboxState.PENDING), anyString(), any());
+        verify(outboxEmailRepository, never()).recordDelivery(eq(2L), anyString(), any());
+        verify(outboxEmailRepository).recordDelivery(eq(1L), anyString(), eq(OutboxState.SENT));
+    }
+}
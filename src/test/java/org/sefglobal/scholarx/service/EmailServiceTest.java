@@ -0,0 +1,37 @@
+package org.sefglobal.scholarx.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sefglobal.scholarx.model.OutboxEmail;
+import org.sefglobal.scholarx.model.SentEmail;
+import org.sefglobal.scholarx.repository.EmailRepository;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailServiceTest {
+    @Mock
+    private EmailOutboxService emailOutboxService;
+    @Mock
+    private EmailRepository emailRepository;
+    @InjectMocks
+    private EmailService emailService;
+
+    @Test
+    void sendEmails_thenQueueEmailsAndRecordThem() {
+        List<OutboxEmail> emails = Collections.singletonList(
+                EmailOutboxService.newEmail("mentee@scholarx.org", "ScholarX", "Hello", false));
+        List<SentEmail> sentEmails = Collections.singletonList(new SentEmail());
+
+        emailService.sendEmails(emails, sentEmails);
+
+        verify(emailOutboxService).enqueueAll(emails);
+        verify(emailRepository).insertAll(sentEmails);
+    }
+}
@@ -0,0 +1,75 @@
+package org.sefglobal.scholarx.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sefglobal.scholarx.exception.NoContentException;
+import org.sefglobal.scholarx.model.EnrolledProgram;
+import org.sefglobal.scholarx.repository.ProgramRepository;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class EnrolledProgramServiceTest {
+    @Mock
+    private ProgramRepository programRepository;
+    private EnrolledProgramService enrolledProgramService;
+    private final long profileId = 1L;
+
+    @BeforeEach
+    void setUp() {
+        enrolledProgramService = new EnrolledProgramService(programRepository, 300000, 100);
+    }
+
+    @Test
+    void getEnrolledPrograms_withRepeatedCalls_thenQueryOnceUntilEnrolmentChanges() throws NoContentException {
+        List<EnrolledProgram> programs = Collections.singletonList(mock(EnrolledProgram.class));
+        doReturn(programs)
+                .when(programRepository)
+                .findAllEnrolledByProfileId(profileId);
+
+        assertThat(enrolledProgramService.getEnrolledPrograms(profileId)).isSameAs(programs);
+        assertThat(enrolledProgramService.getEnrolledPrograms(profileId)).isSameAs(programs);
+        verify(programRepository, times(1)).findAllEnrolledByProfileId(profileId);
+
+        enrolledProgramService.onEnrolmentChanged(EnrolmentChangedEvent.forProfile(profileId));
+        enrolledProgramService.getEnrolledPrograms(profileId);
+        verify(programRepository, times(2)).findAllEnrolledByProfileId(profileId);
+    }
+
+    @Test
+    void getEnrolledPrograms_afterProgramChanged_thenQueryAgain() throws NoContentException {
+        List<EnrolledProgram> programs = Collections.singletonList(mock(EnrolledProgram.class));
+        doReturn(programs)
+                .when(programRepository)
+                .findAllEnrolledByProfileId(profileId);
+
+        enrolledProgramService.getEnrolledPrograms(profileId);
+        enrolledProgramService.onProgramChanged(ProgramChangedEvent.forProgram(1L));
+        enrolledProgramService.getEnrolledPrograms(profileId);
+        verify(programRepository, times(2)).findAllEnrolledByProfileId(profileId);
+    }
+
+    @Test
+    void getEnrolledPrograms_withoutEnrolments_thenThrowNoContent() {
+        doReturn(Collections.emptyList())
+                .when(programRepository)
+                .findAllEnrolledByProfileId(profileId);
+
+        Throwable thrown = catchThrowable(
+                () -> enrolledProgramService.getEnrolledPrograms(profileId));
+        assertThat(thrown)
+                .isInstanceOf(NoContentException.class)
+                .hasMessage("Error, User has not enrolled in any program.");
+    }
+}
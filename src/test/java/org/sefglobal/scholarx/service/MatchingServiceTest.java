@@ -0,0 +1,119 @@
+package org.sefglobal.scholarx.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sefglobal.scholarx.exception.BadRequestException;
+import org.sefglobal.scholarx.exception.ResourceNotFoundException;
+import org.sefglobal.scholarx.model.MatchableMentee;
+import org.sefglobal.scholarx.model.MatchableMentor;
+import org.sefglobal.scholarx.model.MenteeAssignmentDto;
+import org.sefglobal.scholarx.model.Program;
+import org.sefglobal.scholarx.repository.MenteeRepository;
+import org.sefglobal.scholarx.repository.MentorRepository;
+import org.sefglobal.scholarx.repository.ProgramRepository;
+import org.sefglobal.scholarx.util.EnrolmentState;
+import org.sefglobal.scholarx.util.MentorCategory;
+import org.sefglobal.scholarx.util.ProgramState;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class MatchingServiceTest {
+    @Mock
+    private ProgramRepository programRepository;
+    @Mock
+    private MentorRepository mentorRepository;
+    @Mock
+    private MenteeRepository menteeRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @InjectMocks
+    private MatchingService matchingService;
+    private final Long programId = 1L;
+
+    @Test
+    void matchMentees_withFreeSlots_thenAssignByScoreWithoutRejectingMentors()
+            throws ResourceNotFoundException, BadRequestException {
+        Program program = new Program();
+        program.setState(ProgramState.WILDCARD);
+        doReturn(Optional.of(program))
+                .when(programRepository)
+                .findById(anyLong());
+        doReturn(Arrays.asList(
+                mentor(10L, 1, MentorCategory.COMPUTER_SCIENCE, "Java, Spring"),
+                mentor(20L, 2, MentorCategory.ENGINEERING, "Java")))
+                .when(mentorRepository)
+                .findAllMatchableByProgramIdAndState(programId, EnrolmentState.APPROVED);
+        doReturn(Arrays.asList(
+                mentee(1L, 10L, MentorCategory.COMPUTER_SCIENCE, "Java, Spring", 10L),
+                mentee(2L, 10L, MentorCategory.COMPUTER_SCIENCE, "Java, Spring", null),
+                mentee(3L, 20L, MentorCategory.ENGINEERING, "Java", null)))
+                .when(menteeRepository)
+                .findAllMatchableByProgramIdAndStateIn(eq(programId), any());
+        doReturn(1)
+                .when(mentorRepository)
+                .incrementAssignedMenteesIfSlotsAvailable(anyLong(), anyInt());
+
+        List<MenteeAssignmentDto> assignments = matchingService.matchMentees(programId);
+
+        assertThat(assignments)
+                .extracting(MenteeAssignmentDto::getMenteeId, MenteeAssignmentDto::getMentorId)
+                .containsExactlyInAnyOrder(tuple(1L, 20L), tuple(2L, 10L), tuple(3L, 20L));
+        verify(menteeRepository).assignAllByIdIn(Collections.singletonList(2L), 10L);
+        verify(menteeRepository).assignAllByIdIn(Arrays.asList(1L, 3L), 20L);
+    }
+
+    @Test
+    void matchMentees_withUnsuitableProgramState_thenThrowBadRequest() {
+        Program program = new Program();
+        program.setState(ProgramState.ONGOING);
+        doReturn(Optional.of(program))
+                .when(programRepository)
+                .findById(anyLong());
+
+        Throwable thrown = catchThrowable(
+                () -> matchingService.matchMentees(programId));
+        assertThat(thrown)
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Error, Mentees of program with id: 1 cannot be matched. " +
+                            "Program is not in a valid state.");
+    }
+
+    private MatchableMentor mentor(long id, int slots, MentorCategory category, String expertise) {
+        return new MatchableMentor() {
+            public long getId() { return id; }
+            public int getSlots() { return slots; }
+            public int getNoOfAssignedMentees() { return 0; }
+            public MentorCategory getCategory() { return category; }
+            public String getExpertise() { return expertise; }
+        };
+    }
+
+    private MatchableMentee mentee(long id, Long appliedMentorId, MentorCategory category,
+                                   String expertise, Long rejectedById) {
+        return new MatchableMentee() {
+            public long getId() { return id; }
+            public Long getAppliedMentorId() { return appliedMentorId; }
+            public MentorCategory getAppliedMentorCategory() { return category; }
+            public String getAppliedMentorExpertise() { return expertise; }
+            public Long getRejectedById() { return rejectedById; }
+        };
+    }
+}
@@ -0,0 +1,135 @@
+package org.sefglobal.scholarx.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.sefglobal.scholarx.config.JpaConfig;
+import org.sefglobal.scholarx.exception.BadRequestException;
+import org.sefglobal.scholarx.model.Mentee;
+import org.sefglobal.scholarx.model.Mentor;
+import org.sefglobal.scholarx.model.Profile;
+import org.sefglobal.scholarx.model.Program;
+import org.sefglobal.scholarx.repository.MenteeRepository;
+import org.sefglobal.scholarx.repository.MentorRepository;
+import org.sefglobal.scholarx.repository.ProfileRepository;
+import org.sefglobal.scholarx.repository.ProgramRepository;
+import org.sefglobal.scholarx.util.EmailTemplateStore;
+import org.sefglobal.scholarx.util.EnrolmentState;
+import org.sefglobal.scholarx.util.MentorCategory;
+import org.sefglobal.scholarx.util.ProfileType;
+import org.sefglobal.scholarx.util.ProgramState;
+import org.sefglobal.scholarx.util.SequenceIdAllocator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database=H2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+@Import({MenteeService.class, JpaConfig.class, EmailTemplateStore.class, SequenceIdAllocator.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class MenteeServiceConcurrencyTest {
+    private static final int SLOTS = 3;
+    private static final int APPLICANTS = 24;
+
+    @Autowired
+    private MenteeService menteeService;
+    @Autowired
+    private ProgramRepository programRepository;
+    @Autowired
+    private ProfileRepository profileRepository;
+    @Autowired
+    private MentorRepository mentorRepository;
+    @Autowired
+    private MenteeRepository menteeRepository;
+
+    @AfterEach
+    void tearDown() {
+        menteeRepository.deleteAll();
+        mentorRepository.deleteAll();
+        profileRepository.deleteAll();
+        programRepository.deleteAll();
+    }
+
+    @Test
+    void approveOrRejectMentee_withConcurrentApprovals_thenNeverExceedSlots() throws Exception {
+        Program program = new Program();
+        program.setTitle("ScholarX");
+        program.setState(ProgramState.MENTEE_SELECTION);
+        program = programRepository.save(program);
+
+        Profile mentorProfile = profileRepository.save(newProfile());
+        Mentor mentor = new Mentor();
+        mentor.setProfile(mentorProfile);
+        mentor.setProgram(program);
+        mentor.setState(EnrolmentState.APPROVED);
+        mentor.setCategory(MentorCategory.COMPUTER_SCIENCE);
+        mentor.setSlots(SLOTS);
+        mentor = mentorRepository.save(mentor);
+
+        List<Long> menteeIds = new ArrayList<>();
+        for (int i = 0; i < APPLICANTS; i++) {
+            Mentee mentee = new Mentee();
+            mentee.setProfile(profileRepository.save(newProfile()));
+            mentee.setProgram(program);
+            mentee.setState(EnrolmentState.ASSIGNED);
+            mentee.setAppliedMentor(mentor);
+            mentee.setAssignedMentor(mentor);
+            menteeIds.add(menteeRepository.save(mentee).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (long menteeId : menteeIds) {
+            long profileId = mentorProfile.getId();
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    menteeService.approveOrRejectMentee(menteeId, profileId, true);
+                    return true;
+                } catch (BadRequestException exception) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int approvals = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                approvals++;
+            }
+        }
+        executor.shutdown();
+
+        long approvedMentees = menteeRepository.findAll().stream()
+                .filter(mentee -> EnrolmentState.APPROVED.equals(mentee.getState()))
+                .count();
+        assertThat(approvals).isEqualTo(SLOTS);
+        assertThat(approvedMentees).isEqualTo(SLOTS);
+        assertThat(mentorRepository.findById(mentor.getId()).get().getNoOfAssignedMentees()).isEqualTo(SLOTS);
+    }
+
+    private Profile newProfile() {
+        Profile profile = new Profile();
+        profile.setUid(UUID.randomUUID().toString());
+        profile.setEmail(profile.getUid() + "@scholarx.org");
+        profile.setType(ProfileType.DEFAULT);
+        return profile;
+    }
+}
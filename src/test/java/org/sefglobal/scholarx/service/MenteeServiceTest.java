@@ -2,28 +2,47 @@ package org.sefglobal.scholarx.service;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.sefglobal.scholarx.exception.BadRequestException;
+import org.sefglobal.scholarx.exception.ConflictException;
 import org.sefglobal.scholarx.exception.ResourceNotFoundException;
 import org.sefglobal.scholarx.exception.UnauthorizedException;
 import org.sefglobal.scholarx.model.Mentee;
+import org.sefglobal.scholarx.model.MenteeAssignmentDto;
+import org.sefglobal.scholarx.model.MenteeBatchResultDto;
+import org.sefglobal.scholarx.model.MenteeDecisionDto;
 import org.sefglobal.scholarx.model.Mentor;
+import org.sefglobal.scholarx.model.MentorMenteeCounts;
 import org.sefglobal.scholarx.model.Profile;
 import org.sefglobal.scholarx.model.Program;
 import org.sefglobal.scholarx.repository.MenteeRepository;
 import org.sefglobal.scholarx.repository.MentorRepository;
 import org.sefglobal.scholarx.util.EnrolmentState;
 import org.sefglobal.scholarx.util.ProgramState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.withSettings;
 
 @ExtendWith(MockitoExtension.class)
 public class MenteeServiceTest {
@@ -31,6 +50,10 @@ public class MenteeServiceTest {
     private MenteeRepository menteeRepository;
     @Mock
     private MentorRepository mentorRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
     
     @InjectMocks
     private MenteeService menteeService;
@@ -53,19 +76,50 @@ public class MenteeServiceTest {
                             "Mentee doesn't exist.");
     }
 
+    @Test
+    void deleteMentee_withRejectedApplication_thenDecrementMentorCounts() throws ResourceNotFoundException {
+        Profile profile = new Profile();
+        profile.setId(profileId);
+        Mentor appliedMentor = new Mentor();
+        appliedMentor.setId(2L);
+        Mentor rejectingMentor = new Mentor();
+        rejectingMentor.setId(3L);
+        final Mentee mentee = new Mentee();
+        mentee.setProfile(profile);
+        mentee.setState(EnrolmentState.REJECTED);
+        mentee.setAppliedMentor(appliedMentor);
+        mentee.setAssignedMentor(rejectingMentor);
+        mentee.setRejectedBy(rejectingMentor);
+        doReturn(Optional.of(mentee))
+                .when(menteeRepository)
+                .findById(anyLong());
+
+        menteeService.deleteMentee(menteeId);
+
+        verify(mentorRepository).incrementMenteeCounts(2L, -1, 0, 0);
+        verify(mentorRepository).incrementMenteeCounts(3L, 0, 0, -1);
+        verify(mentorRepository, never()).incrementMenteeCounts(anyLong(), anyInt(), eq(-1), anyInt());
+        verify(menteeRepository).deleteById(menteeId);
+    }
+
     @Test
     void approveOrRejectMentee_withValidData_thenReturnUpdatedData()
-            throws ResourceNotFoundException, BadRequestException, UnauthorizedException {
+            throws ResourceNotFoundException, BadRequestException, UnauthorizedException, ConflictException {
         final Mentee mentee = new Mentee();
         mentee.setState(EnrolmentState.PENDING);
         Profile profile = new Profile();
         profile.setId(profileId);
         mentor.setProfile(profile);
         mentee.setAssignedMentor(mentor);
+        mentee.setProgram(new Program());
+        mentee.setProfile(profile);
 
         doReturn(Optional.of(mentee))
                 .when(menteeRepository)
                 .findById(anyLong());
+        doReturn(1)
+                .when(mentorRepository)
+                .incrementAssignedMenteesIfSlotsAvailable(anyLong(), anyInt());
         doReturn(mentee)
                 .when(menteeRepository)
                 .save(any(Mentee.class));
@@ -75,6 +129,57 @@ public class MenteeServiceTest {
         assertThat(savedMentee.getState()).isEqualTo(EnrolmentState.APPROVED);
     }
 
+    @Test
+    void approveOrRejectMentee_withNoAvailableSlots_thenThrowBadRequest() {
+        final Mentee mentee = new Mentee();
+        mentee.setState(EnrolmentState.ASSIGNED);
+        Profile profile = new Profile();
+        profile.setId(profileId);
+        mentor.setProfile(profile);
+        mentee.setAssignedMentor(mentor);
+
+        doReturn(Optional.of(mentee))
+                .when(menteeRepository)
+                .findById(anyLong());
+        doReturn(0)
+                .when(mentorRepository)
+                .incrementAssignedMenteesIfSlotsAvailable(anyLong(), anyInt());
+
+        Throwable thrown = catchThrowable(
+                () -> menteeService.approveOrRejectMentee(menteeId, profileId, true));
+        assertThat(thrown)
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Error, Mentee cannot be approved. " +
+                            "Mentor with id: 0 has no available slots.");
+        assertThat(mentee.getState()).isEqualTo(EnrolmentState.ASSIGNED);
+    }
+
+    @Test
+    void approveOrRejectMentee_withApprovedMentee_thenMoveCountToRejected()
+            throws ResourceNotFoundException, BadRequestException, UnauthorizedException, ConflictException {
+        final Mentee mentee = new Mentee();
+        mentee.setState(EnrolmentState.APPROVED);
+        Profile profile = new Profile();
+        profile.setId(profileId);
+        mentor.setProfile(profile);
+        mentee.setAssignedMentor(mentor);
+        mentee.setProgram(new Program());
+        mentee.setProfile(profile);
+
+        doReturn(Optional.of(mentee))
+                .when(menteeRepository)
+                .findById(anyLong());
+        doReturn(mentee)
+                .when(menteeRepository)
+                .save(any(Mentee.class));
+
+        Mentee savedMentee = menteeService.approveOrRejectMentee(menteeId, profileId, false);
+        assertThat(savedMentee.getState()).isEqualTo(EnrolmentState.REJECTED);
+        assertThat(savedMentee.getRejectedBy()).isEqualTo(mentor);
+        verify(mentorRepository).incrementMenteeCounts(mentor.getId(), 0, -1, 1);
+        verify(eventPublisher).publishEvent(any(MentorDirectoryChangedEvent.class));
+    }
+
     @Test
     void approveOrRejectMentee_withUnavailableData_thenThrowResourceNotFound() {
         doReturn(Optional.empty())
@@ -132,17 +237,21 @@ public class MenteeServiceTest {
     
     @Test
     void updateAssignedMentor_withValidData_thenReturnUpdatedData()
-            throws ResourceNotFoundException, BadRequestException {
+            throws ResourceNotFoundException, BadRequestException, ConflictException {
         final Mentee mentee = new Mentee();
         final Program program = new Program();
         program.setState(ProgramState.WILDCARD);
         mentee.setProgram(program);
+        mentee.setProfile(new Profile());
         doReturn(Optional.of(mentee))
                 .when(menteeRepository)
                 .findById(anyLong());
         doReturn(Optional.of(mentor))
                 .when(mentorRepository)
                 .findById(anyLong());
+        doReturn(1)
+                .when(mentorRepository)
+                .incrementAssignedMenteesIfSlotsAvailable(anyLong(), anyInt());
         doReturn(mentee)
                 .when(menteeRepository)
                 .save(any(Mentee.class));
@@ -204,4 +313,154 @@ public class MenteeServiceTest {
                         "Program is not in a valid state.");
         
     }
+
+    @Test
+    void approveOrRejectMentees_withMixedDecisions_thenReturnResultPerMentee() throws BadRequestException {
+        Profile profile = new Profile();
+        profile.setId(profileId);
+        mentor.setProfile(profile);
+        final Program program = new Program();
+        final Mentee approvedMentee = new Mentee();
+        approvedMentee.setId(1L);
+        approvedMentee.setState(EnrolmentState.ASSIGNED);
+        approvedMentee.setAssignedMentor(mentor);
+        approvedMentee.setProgram(program);
+        approvedMentee.setProfile(profile);
+        final Mentee rejectedMentee = new Mentee();
+        rejectedMentee.setId(3L);
+        rejectedMentee.setState(EnrolmentState.ASSIGNED);
+        rejectedMentee.setAssignedMentor(mentor);
+        rejectedMentee.setProgram(program);
+        rejectedMentee.setProfile(profile);
+        doReturn(Arrays.asList(approvedMentee, rejectedMentee))
+                .when(menteeRepository)
+                .findAllForUpdateByIdIn(Arrays.asList(1L, 2L, 3L));
+        doReturn(1)
+                .when(mentorRepository)
+                .incrementAssignedMenteesIfSlotsAvailable(anyLong(), anyInt());
+
+        List<MenteeBatchResultDto> results = menteeService.approveOrRejectMentees(profileId, Arrays.asList(
+                decision(1L, true), decision(2L, true), decision(3L, false)));
+
+        assertThat(results).extracting(MenteeBatchResultDto::getStatus).containsExactly(200, 404, 200);
+        verify(menteeRepository).approveAllByIdIn(Collections.singletonList(1L));
+        verify(menteeRepository).rejectAllByIdIn(Collections.singletonList(3L));
+        verify(mentorRepository).incrementMenteeCounts(mentor.getId(), 0, 0, 1);
+        verify(eventPublisher).publishEvent(any(MentorDirectoryChangedEvent.class));
+        verify(eventPublisher, times(2)).publishEvent(any(EnrolmentChangedEvent.class));
+    }
+
+    @Test
+    void approveOrRejectMentees_withRepeatedMentee_thenThrowBadRequest() {
+        Throwable thrown = catchThrowable(
+                () -> menteeService.approveOrRejectMentees(profileId, Arrays.asList(
+                        decision(1L, true), decision(1L, false))));
+        assertThat(thrown)
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Error, Batch cannot contain a mentee more than once.");
+    }
+
+    @Test
+    void updateAssignedMentors_withSwapBetweenFullMentors_thenReleaseSlotsFirst() throws BadRequestException {
+        final Program program = new Program();
+        program.setId(5L);
+        program.setState(ProgramState.WILDCARD);
+        Mentor firstMentor = fullMentor(10L, program);
+        Mentor secondMentor = fullMentor(20L, program);
+        Mentee firstMentee = assignedMentee(1L, firstMentor, program);
+        Mentee secondMentee = assignedMentee(2L, secondMentor, program);
+        doReturn(Arrays.asList(firstMentee, secondMentee))
+                .when(menteeRepository)
+                .findAllForUpdateByIdIn(Arrays.asList(1L, 2L));
+        doReturn(Arrays.asList(firstMentor, secondMentor))
+                .when(mentorRepository)
+                .findAllById(any());
+        List<MentorMenteeCounts> counts = Arrays.asList(menteeCounts(10L), menteeCounts(20L));
+        doReturn(counts)
+                .when(mentorRepository)
+                .findAllMenteeCountsByProgramId(5L);
+        doReturn(1)
+                .when(mentorRepository)
+                .incrementAssignedMenteesIfSlotsAvailable(anyLong(), anyInt());
+
+        List<MenteeBatchResultDto> results = menteeService.updateAssignedMentors(Arrays.asList(
+                assignment(1L, 20L), assignment(2L, 10L)));
+
+        assertThat(results).extracting(MenteeBatchResultDto::getStatus).containsExactly(200, 200);
+        InOrder inOrder = inOrder(mentorRepository);
+        inOrder.verify(mentorRepository).incrementMenteeCounts(10L, 0, -1, 0);
+        inOrder.verify(mentorRepository).incrementAssignedMenteesIfSlotsAvailable(10L, 1);
+        verify(mentorRepository).incrementMenteeCounts(20L, 0, -1, 0);
+        verify(mentorRepository).incrementAssignedMenteesIfSlotsAvailable(20L, 1);
+        verify(menteeRepository).assignAllByIdIn(Collections.singletonList(1L), 20L);
+        verify(menteeRepository).assignAllByIdIn(Collections.singletonList(2L), 10L);
+    }
+
+    @Test
+    void updateAssignedMentors_withMoveToFullMentor_thenKeepCurrentMentor() throws BadRequestException {
+        final Program program = new Program();
+        program.setId(5L);
+        program.setState(ProgramState.WILDCARD);
+        Mentor firstMentor = fullMentor(10L, program);
+        Mentor secondMentor = fullMentor(20L, program);
+        Mentee firstMentee = assignedMentee(1L, firstMentor, program);
+        doReturn(Collections.singletonList(firstMentee))
+                .when(menteeRepository)
+                .findAllForUpdateByIdIn(Collections.singletonList(1L));
+        doReturn(Collections.singletonList(secondMentor))
+                .when(mentorRepository)
+                .findAllById(any());
+        List<MentorMenteeCounts> counts = Arrays.asList(menteeCounts(10L), menteeCounts(20L));
+        doReturn(counts)
+                .when(mentorRepository)
+                .findAllMenteeCountsByProgramId(5L);
+
+        List<MenteeBatchResultDto> results = menteeService.updateAssignedMentors(Collections.singletonList(
+                assignment(1L, 20L)));
+
+        assertThat(results).extracting(MenteeBatchResultDto::getStatus).containsExactly(400);
+        verify(mentorRepository, never()).incrementMenteeCounts(anyLong(), anyInt(), anyInt(), anyInt());
+        verify(mentorRepository, never()).incrementAssignedMenteesIfSlotsAvailable(anyLong(), anyInt());
+        verify(menteeRepository, never()).assignAllByIdIn(any(), anyLong());
+    }
+
+    private static Mentor fullMentor(long id, Program program) {
+        Mentor mentor = new Mentor();
+        mentor.setId(id);
+        mentor.setProgram(program);
+        mentor.setSlots(1);
+        return mentor;
+    }
+
+    private static Mentee assignedMentee(long id, Mentor mentor, Program program) {
+        Mentee mentee = new Mentee();
+        mentee.setId(id);
+        mentee.setState(EnrolmentState.ASSIGNED);
+        mentee.setAssignedMentor(mentor);
+        mentee.setProgram(program);
+        mentee.setProfile(new Profile());
+        return mentee;
+    }
+
+    private static MentorMenteeCounts menteeCounts(long mentorId) {
+        MentorMenteeCounts counts = mock(MentorMenteeCounts.class, withSettings().lenient());
+        doReturn(mentorId).when(counts).getMentorId();
+        doReturn(1).when(counts).getSlots();
+        doReturn(1).when(counts).getNoOfAssignedMentees();
+        return counts;
+    }
+
+    private static MenteeAssignmentDto assignment(long menteeId, long mentorId) {
+        MenteeAssignmentDto assignment = new MenteeAssignmentDto();
+        assignment.setMenteeId(menteeId);
+        assignment.setMentorId(mentorId);
+        return assignment;
+    }
+
+    private MenteeDecisionDto decision(long menteeId, boolean isApproved) {
+        MenteeDecisionDto decision = new MenteeDecisionDto();
+        decision.setMenteeId(menteeId);
+        decision.setIsApproved(isApproved);
+        return decision;
+    }
 }
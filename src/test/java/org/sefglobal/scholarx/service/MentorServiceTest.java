@@ -17,6 +17,8 @@ import org.sefglobal.scholarx.repository.MentorRepository;
 import org.sefglobal.scholarx.repository.ProfileRepository;
 import org.sefglobal.scholarx.util.EnrolmentState;
 import org.sefglobal.scholarx.util.ProgramState;
+import org.sefglobal.scholarx.util.ProgramUtil;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Optional;
 
@@ -26,6 +28,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 public class MentorServiceTest {
@@ -35,6 +38,10 @@ public class MentorServiceTest {
     private MenteeRepository menteeRepository;
     @Mock
     private ProfileRepository profileRepository;
+    @Mock
+    private ProgramUtil programUtil;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private MentorService mentorService;
     private final Long mentorId = 1L;
@@ -60,6 +67,10 @@ public class MentorServiceTest {
     @Test
     void updateState_withValidData_thenReturnUpdatedData()
             throws ResourceNotFoundException, BadRequestException {
+        Program program = new Program();
+        program.setId(programId);
+        mentor.setProgram(program);
+        mentor.setProfile(profile);
         doReturn(Optional.of(mentor))
                 .when(mentorRepository)
                 .findById(anyLong());
@@ -69,6 +80,8 @@ public class MentorServiceTest {
 
         Mentor savedMentor = mentorService.updateState(mentorId, EnrolmentState.APPROVED);
         assertThat(savedMentor).isNotNull();
+        verify(eventPublisher).publishEvent(any(MentorDirectoryChangedEvent.class));
+        verify(eventPublisher).publishEvent(any(EnrolmentChangedEvent.class));
     }
 
     @Test
@@ -0,0 +1,104 @@
+package org.sefglobal.scholarx.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sefglobal.scholarx.exception.OAuth2AuthenticationProcessingException;
+import org.sefglobal.scholarx.exception.UserAlreadyExistsAuthenticationException;
+import org.sefglobal.scholarx.model.Profile;
+import org.sefglobal.scholarx.repository.MentorRepository;
+import org.sefglobal.scholarx.repository.ProfileRepository;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class ProfileServiceTest {
+    @Mock
+    private ProfileRepository profileRepository;
+    @Mock
+    private MentorRepository mentorRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @InjectMocks
+    private ProfileService profileService;
+    private final String uid = "109876543210987654321";
+
+    @Test
+    void processUserRegistration_withUnchangedDetails_thenReturnProfileWithoutSaving()
+            throws OAuth2AuthenticationProcessingException, UserAlreadyExistsAuthenticationException {
+        Profile profile = profile("John", "Doe", "https://scholarx.org/john.png");
+        doReturn(Optional.of(profile))
+                .when(profileRepository)
+                .findByUid(uid);
+
+        Profile loggedInProfile = profileService.processUserRegistration(
+                attributes("John Doe", "https://scholarx.org/john.png"));
+        assertThat(loggedInProfile).isSameAs(profile);
+        verify(profileRepository, never()).save(any());
+    }
+
+    @Test
+    void processUserRegistration_withChangedDetails_thenSaveProfile()
+            throws OAuth2AuthenticationProcessingException, UserAlreadyExistsAuthenticationException {
+        Profile profile = profile("John", "Doe", "https://scholarx.org/john.png");
+        doReturn(Optional.of(profile))
+                .when(profileRepository)
+                .findByUid(uid);
+        doReturn(profile)
+                .when(profileRepository)
+                .save(profile);
+
+        Profile loggedInProfile = profileService.processUserRegistration(
+                attributes("John Doe Smith", "https://scholarx.org/john.png"));
+        assertThat(loggedInProfile.getLastName()).isEqualTo("Doe Smith");
+        verify(profileRepository).save(profile);
+        verify(eventPublisher, never()).publishEvent(any(MentorDirectoryChangedEvent.class));
+    }
+
+    @Test
+    void processUserRegistration_withChangedDetailsOfMentor_thenRebuildMentorDirectory()
+            throws OAuth2AuthenticationProcessingException, UserAlreadyExistsAuthenticationException {
+        Profile profile = profile("John", "Doe", "https://scholarx.org/john.png");
+        doReturn(Optional.of(profile))
+                .when(profileRepository)
+                .findByUid(uid);
+        doReturn(profile)
+                .when(profileRepository)
+                .save(profile);
+        doReturn(true)
+                .when(mentorRepository)
+                .existsByProfileId(profile.getId());
+
+        profileService.processUserRegistration(attributes("John Doe", "https://scholarx.org/john-2023.png"));
+        verify(eventPublisher).publishEvent(any(MentorDirectoryChangedEvent.class));
+    }
+
+    private Profile profile(String firstName, String lastName, String imageUrl) {
+        Profile profile = new Profile();
+        profile.setUid(uid);
+        profile.setFirstName(firstName);
+        profile.setLastName(lastName);
+        profile.setImageUrl(imageUrl);
+        return profile;
+    }
+
+    private Map<String, Object> attributes(String name, String picture) {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("sub", uid);
+        attributes.put("name", name);
+        attributes.put("email", "john@scholarx.org");
+        attributes.put("picture", picture);
+        return attributes;
+    }
+}
@@ -1,9 +1,13 @@
 package org.sefglobal.scholarx.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.sefglobal.scholarx.exception.BadRequestException;
 import org.sefglobal.scholarx.exception.NoContentException;
@@ -11,18 +15,29 @@ import org.sefglobal.scholarx.exception.ResourceNotFoundException;
 import org.sefglobal.scholarx.model.*;
 import org.sefglobal.scholarx.repository.*;
 import org.sefglobal.scholarx.util.EnrolmentState;
+import org.sefglobal.scholarx.util.KeysetCursor;
+import org.sefglobal.scholarx.util.KeysetPage;
+import org.sefglobal.scholarx.util.MailGroup;
 import org.sefglobal.scholarx.util.ProgramState;
+import org.sefglobal.scholarx.util.ProgramUtil;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 public class ProgramServiceTest {
@@ -34,6 +49,16 @@ public class ProgramServiceTest {
     private MentorRepository mentorRepository;
     @Mock
     private MenteeRepository menteeRepository;
+    @Mock
+    private ProgramUtil programUtil;
+    @Mock
+    private EmailService emailService;
+    @Mock
+    private RecipientRepository recipientRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
     @InjectMocks
     private ProgramService programService;
     private final Long programId = 1L;
@@ -61,6 +86,29 @@ public class ProgramServiceTest {
         assertThat(savedProgram).isNotNull();
     }
 
+    @Test
+    void updateState_toOngoing_thenUpdateMenteesInBulk()
+            throws ResourceNotFoundException {
+        Program wildcardProgram = new Program("SCHOLARX-2020", "SCHOLARX program of 2020",
+                "https://scholarx/images/SCHOLARX-2020",
+                "https://scholarx/SCHOLARX-2020/home", ProgramState.WILDCARD);
+        doReturn(Optional.of(wildcardProgram))
+                .when(programRepository)
+                .findById(anyLong());
+        doReturn(wildcardProgram)
+                .when(programRepository)
+                .save(any(Program.class));
+
+        Program savedProgram = programService.updateState(programId);
+        assertThat(savedProgram.getState()).isEqualTo(ProgramState.ONGOING);
+        verify(menteeRepository).approveAllAssignedByProgramId(programId);
+        verify(menteeRepository).failAllUnassignedByProgramId(programId);
+        assertThat(meterRegistry.get("scholarx.program.state.transition")
+                .tags("from", "WILDCARD", "to", "ONGOING")
+                .timer()
+                .count()).isEqualTo(1);
+    }
+
     @Test
     void updateState_withUnavailableData_thenThrowResourceNotFound() {
         doReturn(Optional.empty())
@@ -164,6 +212,7 @@ public class ProgramServiceTest {
 
         Mentor savedMentor = programService.applyAsMentor(programId, profileId, mentor);
         assertThat(savedMentor).isNotNull();
+        verify(eventPublisher).publishEvent(any(EnrolmentChangedEvent.class));
     }
 
     @Test
@@ -350,12 +399,85 @@ public class ProgramServiceTest {
         List<Mentee> storedData = new ArrayList<>();
         doReturn(storedData)
                 .when(menteeRepository)
-                .findAllByProgramId(programId);
+                .findAllWithDetailsByProgramId(programId);
 
         List<Mentee> returnedData = programService.getAllMenteesByProgramId(programId);
         assertThat(returnedData).isEqualTo(storedData);
     }
 
+    @Test
+    void getMenteesPageByProgramId_withMoreRowsThanLimit_thenReturnNextCursor()
+            throws ResourceNotFoundException, BadRequestException {
+        doReturn(true)
+                .when(programRepository)
+                .existsById(programId);
+        List<Mentee> storedData = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            Mentee storedMentee = new Mentee();
+            storedMentee.setId(id);
+            storedMentee.setCreatedAt(new Date(1000L * id));
+            storedData.add(storedMentee);
+        }
+        doReturn(storedData)
+                .when(menteeRepository)
+                .findPageByProgramId(eq(programId.longValue()), any());
+
+        KeysetPage<Mentee> page = programService.getMenteesPageByProgramId(programId, null, 2);
+        assertThat(page.getItems()).hasSize(2);
+        KeysetCursor cursor = KeysetCursor.decode(page.getNextCursor());
+        assertThat(cursor.getId()).isEqualTo(2L);
+        assertThat(cursor.getCreatedAt()).isEqualTo(new Date(2000L));
+    }
+
+    @Test
+    void getMenteesPageByProgramId_withInvalidCursor_thenThrowBadRequest() {
+        doReturn(true)
+                .when(programRepository)
+                .existsById(programId);
+
+        Throwable thrown = catchThrowable(
+                () -> programService.getMenteesPageByProgramId(programId, "not a cursor", 10));
+        assertThat(thrown)
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void searchMentorsByProgramId_withSecondPage_thenQueryWithOffset()
+            throws ResourceNotFoundException, BadRequestException {
+        doReturn(true)
+                .when(programRepository)
+                .existsById(programId);
+        doReturn(new ArrayList<MentorSearchHit>())
+                .when(mentorRepository)
+                .searchApprovedByProgramId(programId, "machine learning", 20, 20L);
+
+        List<MentorSearchHit> hits = programService.searchMentorsByProgramId(programId, " machine learning ", 1, 20);
+        assertThat(hits).isEmpty();
+    }
+
+    @Test
+    void searchMentorsByProgramId_withLastPage_thenQueryWithoutOverflow()
+            throws ResourceNotFoundException, BadRequestException {
+        doReturn(true)
+                .when(programRepository)
+                .existsById(programId);
+        doReturn(new ArrayList<MentorSearchHit>())
+                .when(mentorRepository)
+                .searchApprovedByProgramId(programId, "java", 100, Integer.MAX_VALUE * 100L);
+
+        List<MentorSearchHit> hits = programService.searchMentorsByProgramId(programId, "java", Integer.MAX_VALUE, 100);
+        assertThat(hits).isEmpty();
+    }
+
+    @Test
+    void searchMentorsByProgramId_withBlankQuery_thenThrowBadRequest() {
+        Throwable thrown = catchThrowable(
+                () -> programService.searchMentorsByProgramId(programId, "  ", 0, 20));
+        assertThat(thrown)
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Error, Search query cannot be empty.");
+    }
+
     @Test
     void updateMenteeData_withValidData_thenReturnUpdatedData()
             throws ResourceNotFoundException, BadRequestException {
@@ -435,4 +557,31 @@ public class ProgramServiceTest {
                 .hasMessage("Error, User by profile id: 1 " +
                         "hasn't applied for program with id: 1.");
     }
+
+    @Test
+    void sendBulkEmails_withAdditionalEmails_thenQueueEachAddressOnce()
+            throws ResourceNotFoundException {
+        BulkEmailDto bulkEmailDto = new BulkEmailDto();
+        bulkEmailDto.setSubject("ScholarX");
+        bulkEmailDto.setMessage("Hello");
+        bulkEmailDto.setMailGroups(Collections.singletonList(MailGroup.ALL_MENTORS));
+        bulkEmailDto.setAdditionalEmails(Arrays.asList("mentor@scholarx.org", "admin@scholarx.org"));
+        doReturn(true)
+                .when(programRepository)
+                .existsById(programId);
+        doAnswer(invocation -> {
+            Consumer<String> consumer = invocation.getArgument(2);
+            consumer.accept("mentor@scholarx.org");
+            return null;
+        }).when(recipientRepository)
+                .streamEmailsByProgramIdAndMailGroups(anyLong(), any(), any());
+
+        programService.sendBulkEmails(programId, bulkEmailDto);
+
+        ArgumentCaptor<List<OutboxEmail>> captor = ArgumentCaptor.forClass(List.class);
+        verify(emailService).sendEmailsInNewTransaction(captor.capture());
+        assertThat(captor.getValue())
+                .extracting(OutboxEmail::getRecipient)
+                .containsExactlyInAnyOrder("mentor@scholarx.org", "admin@scholarx.org");
+    }
 }
@@ -0,0 +1,76 @@
+package org.sefglobal.scholarx.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.sefglobal.scholarx.model.EmailBody;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmailTemplateStoreTest {
+    private final EmailTemplateStore emailTemplateStore = new EmailTemplateStore();
+
+    @ParameterizedTest
+    @EnumSource(EmailTemplate.class)
+    void render_withEachTemplate_thenSubstituteParameters(EmailTemplate template) {
+        String source = emailTemplateStore.getBody(template).getContent();
+
+        String message = emailTemplateStore.render(template, params("Jane Doe", "ScholarX 2023"));
+
+        assertThat(message).isNotBlank().doesNotContain("{{").doesNotContain("}}");
+        assertThat(message).contains("Jane Doe");
+        if (source.contains("{{programTitle}}")) {
+            assertThat(message).contains("ScholarX 2023");
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(EmailTemplate.class)
+    void render_withHtmlInName_thenEscapeName(EmailTemplate template) {
+        String message = emailTemplateStore.render(template,
+                params("<script>alert('x')</script> & Co", "<b>ScholarX</b>"));
+
+        assertThat(message).doesNotContain("<script>").doesNotContain("<b>ScholarX</b>");
+        assertThat(message).contains("&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt; &amp; Co");
+    }
+
+    @Test
+    void getBody_withRepeatedCalls_thenReturnSharedBody() {
+        EmailBody body = emailTemplateStore.getBody(EmailTemplate.MENTEE_APPROVED);
+
+        assertThat(emailTemplateStore.getBody(EmailTemplate.MENTEE_APPROVED)).isSameAs(body);
+        assertThat(body.getHash()).hasSize(64);
+        assertThat(emailTemplateStore.getBody(EmailTemplate.MENTEE_DISCARDED).getHash())
+                .isNotEqualTo(body.getHash());
+    }
+
+    @Test
+    void render_withStoredBody_thenMatchTemplateRendering() {
+        Map<String, String> params = params("Jane", "ScholarX 2023");
+        EmailBody storedBody = new EmailBody(emailTemplateStore.getBody(EmailTemplate.MENTEE_APPROVED).getHash(),
+                emailTemplateStore.getBody(EmailTemplate.MENTEE_APPROVED).getContent());
+
+        String message = emailTemplateStore.render(storedBody, emailTemplateStore.toJson(params));
+
+        assertThat(message).isEqualTo(emailTemplateStore.render(EmailTemplate.MENTEE_APPROVED, params));
+        assertThat(message).startsWith("Dear Jane,");
+    }
+
+    @Test
+    void render_withTemplateId_thenMatchTemplateRendering() {
+        Map<String, String> params = params("Jane", "ScholarX 2023");
+
+        assertThat(emailTemplateStore.render(EmailTemplate.MENTOR_APPROVED.getId(), emailTemplateStore.toJson(params)))
+                .isEqualTo(emailTemplateStore.render(EmailTemplate.MENTOR_APPROVED, params));
+    }
+
+    private static Map<String, String> params(String name, String programTitle) {
+        Map<String, String> params = new HashMap<>();
+        params.put("name", name);
+        params.put("programTitle", programTitle);
+        return params;
+    }
+}
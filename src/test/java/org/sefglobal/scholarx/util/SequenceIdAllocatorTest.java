@@ -0,0 +1,55 @@
+package org.sefglobal.scholarx.util;
+
+import org.junit.jupiter.api.Test;
+import org.sefglobal.scholarx.config.JpaConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({JpaConfig.class, EmailTemplateStore.class, SequenceIdAllocator.class})
+public class SequenceIdAllocatorTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:12-alpine");
+
+    @Autowired
+    private SequenceIdAllocator sequenceIdAllocator;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Test
+    void nextIds_withCount_thenReserveDistinctIdsFromSequence() {
+        List<Long> ids = sequenceIdAllocator.nextIds(5);
+
+        assertThat(ids).hasSize(5).doesNotHaveDuplicates().isSorted();
+        Long next = jdbcTemplate.queryForObject("SELECT nextval('hibernate_sequence')", Long.class);
+        assertThat(next).isGreaterThan(ids.get(4));
+        assertThat(sequenceIdAllocator.nextIds(5)).allMatch(id -> id > next);
+    }
+
+    @Test
+    void nextIds_withoutCount_thenReturnEmpty() {
+        assertThat(sequenceIdAllocator.nextIds(0)).isEmpty();
+    }
+}